@@ -0,0 +1,75 @@
+
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Records a random-walk price feed to a tick journal, then replays it through a fresh
+// Stock with a simple threshold investor attached and reports the replay rate
+public class BacktestDemo {
+    public static void main(String[] args) throws IOException {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        Path file = Files.createTempFile("ticks", ".journal");
+
+        try {
+            Stock live = new Stock();
+            try (TickJournal journal = new TickJournal(file)) {
+                live.setJournal(journal);
+                Random random = new Random(42);
+                float price = 100.0f;
+                for (long i = 0; i < ticks; i++) {
+                    price = Math.max(1.0f, price + (random.nextFloat() - 0.5f) * 0.1f);
+                    live.changePrice(price);
+                }
+                live.setJournal(null);
+            }
+            System.out.println("Recorded " + ticks + " ticks to " + file);
+
+            Stock backtest = new Stock();
+            ThresholdInvestor strategy = new ThresholdInvestor(99.0f, 101.0f);
+            backtest.register(strategy);
+
+            try (TickReplay replay = new TickReplay(file)) {
+                long start = System.nanoTime();
+                long replayed = replay.replayInto(backtest);
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                System.out.printf("Replayed %,d ticks in %.2f s (%,.0f ticks/s)%n", replayed, seconds, replayed / seconds);
+            }
+            System.out.println("Strategy: " + strategy);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Buys below the lower bound and sells above the upper bound, one unit at a time
+    private static class ThresholdInvestor implements Observer {
+        private final float buyBelow;
+        private final float sellAbove;
+        private int position;
+        private double cash;
+        private float lastPrice;
+
+        ThresholdInvestor(float buyBelow, float sellAbove) {
+            this.buyBelow = buyBelow;
+            this.sellAbove = sellAbove;
+        }
+
+        @Override
+        public void onPriceUpdate(float latestPrice) {
+            lastPrice = latestPrice;
+            if (latestPrice < buyBelow && position < 10) {
+                position++;
+                cash -= latestPrice;
+            } else if (latestPrice > sellAbove && position > 0) {
+                position--;
+                cash += latestPrice;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("position=%d, P&L=%.2f", position, cash + position * lastPrice);
+        }
+    }
+}
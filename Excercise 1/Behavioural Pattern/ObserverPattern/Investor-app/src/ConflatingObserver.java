@@ -0,0 +1,83 @@
+
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Observer wrapper that decouples a slow investor from the notifying thread.
+// Each update only overwrites the pending price; a delivery is scheduled on the
+// executor if none is already queued. When the investor is still busy with the
+// previous update, intermediate prices are skipped and it sees only the latest one.
+public class ConflatingObserver implements Observer {
+    private final Observer delegate;
+    private final Executor executor;
+    private final AtomicInteger pendingBits = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedDeliveries = new AtomicLong();
+
+    public ConflatingObserver(Observer delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void onPriceUpdate(float latestPrice) {
+        pendingBits.set(Float.floatToRawIntBits(latestPrice));
+        received.incrementAndGet();
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Nothing was queued, so let the next update try again
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    // Number of onPriceUpdate calls on the investor that threw; later prices are still delivered
+    public long getFailedDeliveries() {
+        return failedDeliveries.get();
+    }
+
+    private void drain() {
+        boolean finished = false;
+        try {
+            while (true) {
+                long seen = received.get();
+                try {
+                    delegate.onPriceUpdate(Float.intBitsToFloat(pendingBits.get()));
+                    delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failedDeliveries.incrementAndGet();
+                }
+                if (received.get() != seen) {
+                    // A newer price arrived while the investor was busy
+                    continue;
+                }
+                scheduled.set(false);
+                // Re-check: an update may have slipped in before the flag was cleared
+                if (received.get() == seen || !scheduled.compareAndSet(false, true)) {
+                    finished = true;
+                    return;
+                }
+            }
+        } finally {
+            if (!finished) {
+                // An Error escaped the investor; the next update schedules a fresh drain
+                scheduled.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+
+
+// Observer wrapper that drops updates rejected by a PriceFilter.
+// It runs on the notifying thread, so filtered updates never reach the delegate.
+public class FilteredObserver implements Observer {
+    private final Observer delegate;
+    private final PriceFilter filter;
+    private float lastPrice;
+    private long lastNanos = Long.MIN_VALUE;
+    private long dropped;
+
+    public FilteredObserver(Observer delegate, PriceFilter filter) {
+        this.delegate = delegate;
+        this.filter = filter;
+    }
+
+    @Override
+    public void onPriceUpdate(float latestPrice) {
+        long now = System.nanoTime();
+        if (!filter.accepts(lastPrice, lastNanos, latestPrice, now)) {
+            dropped++;
+            return;
+        }
+        lastPrice = latestPrice;
+        lastNanos = now;
+        delegate.onPriceUpdate(latestPrice);
+    }
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
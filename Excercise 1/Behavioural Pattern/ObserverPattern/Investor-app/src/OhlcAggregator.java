@@ -0,0 +1,151 @@
+
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rolling OHLC/VWAP bars of a fixed duration, kept in primitive ring buffers.
+// A single writer (the thread calling Stock.changePrice) updates the current bar
+// in place; readers on any thread take consistent snapshots through a seqlock,
+// so no locks or boxed values are involved on either side.
+public class OhlcAggregator {
+    private final long barMillis;
+    private final int capacity;
+
+    private final long[] start;
+    private final float[] open;
+    private final float[] high;
+    private final float[] low;
+    private final float[] close;
+    private final long[] volume;
+    private final double[] notional;
+    private final long[] ticks;
+
+    // Odd while the writer is updating a bar
+    private final AtomicLong version = new AtomicLong();
+    // Number of bars started so far; the current bar is barCount - 1
+    private final AtomicLong barCount = new AtomicLong();
+    private long currentBucket = Long.MIN_VALUE;
+
+    public OhlcAggregator(long barMillis, int capacity) {
+        if (barMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Bar length and capacity must be positive");
+        }
+        this.barMillis = barMillis;
+        this.capacity = capacity;
+        this.start = new long[capacity];
+        this.open = new float[capacity];
+        this.high = new float[capacity];
+        this.low = new float[capacity];
+        this.close = new float[capacity];
+        this.volume = new long[capacity];
+        this.notional = new double[capacity];
+        this.ticks = new long[capacity];
+    }
+
+    public long getBarMillis() {
+        return barMillis;
+    }
+
+    // Single writer only
+    public void onTick(float price, long tickVolume, long timestampMillis) {
+        long bucket = Math.floorDiv(timestampMillis, barMillis);
+        long v = version.get();
+        version.set(v + 1);
+        // Keep the bar writes below from becoming visible before the odd version
+        VarHandle.releaseFence();
+
+        if (bucket != currentBucket) {
+            currentBucket = bucket;
+            int slot = (int) (barCount.get() % capacity);
+            start[slot] = bucket * barMillis;
+            open[slot] = price;
+            high[slot] = price;
+            low[slot] = price;
+            close[slot] = price;
+            volume[slot] = tickVolume;
+            notional[slot] = (double) price * tickVolume;
+            ticks[slot] = 1;
+            barCount.set(barCount.get() + 1);
+        } else {
+            int slot = (int) ((barCount.get() - 1) % capacity);
+            if (price > high[slot]) {
+                high[slot] = price;
+            }
+            if (price < low[slot]) {
+                low[slot] = price;
+            }
+            close[slot] = price;
+            volume[slot] += tickVolume;
+            notional[slot] += (double) price * tickVolume;
+            ticks[slot]++;
+        }
+
+        version.set(v + 2);
+    }
+
+    // barsAgo = 0 is the bar currently being built; returns null if that bar is not retained
+    public OhlcBar getBar(int barsAgo) {
+        while (true) {
+            long v = version.get();
+            if ((v & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long count = barCount.get();
+            if (barsAgo < 0 || barsAgo >= Math.min(count, capacity)) {
+                return null;
+            }
+            OhlcBar bar = read((int) ((count - 1 - barsAgo) % capacity));
+            VarHandle.acquireFence();
+            if (version.get() == v) {
+                return bar;
+            }
+        }
+    }
+
+    // Most recent bars first
+    public List<OhlcBar> getBars(int maxBars) {
+        List<OhlcBar> bars = new ArrayList<>();
+        for (int i = 0; i < maxBars; i++) {
+            OhlcBar bar = getBar(i);
+            if (bar == null) {
+                break;
+            }
+            bars.add(bar);
+        }
+        return bars;
+    }
+
+    // Combines the last n bars (including the current one) into a single window
+    public OhlcBar getRolling(int bars) {
+        List<OhlcBar> window = getBars(bars);
+        if (window.isEmpty()) {
+            return null;
+        }
+        OhlcBar newest = window.get(0);
+        OhlcBar oldest = window.get(window.size() - 1);
+        float hi = -Float.MAX_VALUE;
+        float lo = Float.MAX_VALUE;
+        long vol = 0;
+        long tickCount = 0;
+        double pv = 0;
+        for (OhlcBar bar : window) {
+            hi = Math.max(hi, bar.getHigh());
+            lo = Math.min(lo, bar.getLow());
+            vol += bar.getVolume();
+            tickCount += bar.getTicks();
+            pv += bar.getVwap() * bar.getVolume();
+        }
+        return new OhlcBar(oldest.getStartMillis(), newest.getEndMillis(), oldest.getOpen(), hi, lo,
+                newest.getClose(), vol, vol == 0 ? newest.getClose() : pv / vol, tickCount);
+    }
+
+    private OhlcBar read(int slot) {
+        long vol = volume[slot];
+        double vwap = vol == 0 ? close[slot] : notional[slot] / vol;
+        return new OhlcBar(start[slot], start[slot] + barMillis, open[slot], high[slot], low[slot],
+                close[slot], vol, vwap, ticks[slot]);
+    }
+}
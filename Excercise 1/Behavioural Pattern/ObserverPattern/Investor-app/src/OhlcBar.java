@@ -0,0 +1,43 @@
+
+
+// Immutable snapshot of one aggregated price bar
+public class OhlcBar {
+    private final long startMillis;
+    private final long endMillis;
+    private final float open;
+    private final float high;
+    private final float low;
+    private final float close;
+    private final long volume;
+    private final double vwap;
+    private final long ticks;
+
+    public OhlcBar(long startMillis, long endMillis, float open, float high, float low, float close,
+                   long volume, double vwap, long ticks) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.vwap = vwap;
+        this.ticks = ticks;
+    }
+
+    public long getStartMillis() { return startMillis; }
+    public long getEndMillis() { return endMillis; }
+    public float getOpen() { return open; }
+    public float getHigh() { return high; }
+    public float getLow() { return low; }
+    public float getClose() { return close; }
+    public long getVolume() { return volume; }
+    public double getVwap() { return vwap; }
+    public long getTicks() { return ticks; }
+
+    @Override
+    public String toString() {
+        return String.format("O=%.2f H=%.2f L=%.2f C=%.2f V=%d VWAP=%.4f (%d ticks)",
+                open, high, low, close, volume, vwap, ticks);
+    }
+}
@@ -0,0 +1,54 @@
+
+
+// Subscription filter checked before an update is dispatched to an observer.
+// An update passes only if it moved at least minDelta in absolute terms, at least
+// minPercent relative to the last delivered price, and no more than maxPerSecond
+// updates have been delivered. Zero disables a condition.
+public class PriceFilter {
+    public static final PriceFilter NONE = new PriceFilter(0f, 0f, 0);
+
+    private final float minDelta;
+    private final float minPercent;
+    private final long minIntervalNanos;
+
+    public PriceFilter(float minDelta, float minPercent, int maxPerSecond) {
+        if (minDelta < 0 || minPercent < 0 || maxPerSecond < 0) {
+            throw new IllegalArgumentException("Filter thresholds cannot be negative");
+        }
+        this.minDelta = minDelta;
+        this.minPercent = minPercent;
+        this.minIntervalNanos = maxPerSecond == 0 ? 0 : 1_000_000_000L / maxPerSecond;
+    }
+
+    public static PriceFilter minDelta(float delta) {
+        return new PriceFilter(delta, 0f, 0);
+    }
+
+    public static PriceFilter minPercent(float percent) {
+        return new PriceFilter(0f, percent, 0);
+    }
+
+    public static PriceFilter maxRate(int perSecond) {
+        return new PriceFilter(0f, 0f, perSecond);
+    }
+
+    // lastNanos is the time of the last delivery, or Long.MIN_VALUE before the first one
+    public boolean accepts(float lastPrice, long lastNanos, float newPrice, long nowNanos) {
+        if (lastNanos == Long.MIN_VALUE) {
+            return true;
+        }
+        float move = Math.abs(newPrice - lastPrice);
+        if (move < minDelta) {
+            return false;
+        }
+        if (minPercent > 0) {
+            // Any move away from zero counts as an unbounded percentage move
+            float percent = lastPrice == 0f ? (move > 0f ? Float.POSITIVE_INFINITY : 0f)
+                                            : move * 100f / Math.abs(lastPrice);
+            if (percent < minPercent) {
+                return false;
+            }
+        }
+        return nowNanos - lastNanos >= minIntervalNanos;
+    }
+}
@@ -1,28 +1,121 @@
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Stock {
     private final List<Observer> observerList = new ArrayList<>();
-    private float currentPrice;
+    // Volatile so readers on other threads always see the last published price
+    private volatile float currentPrice;
+    private volatile OhlcAggregator[] aggregators = new OhlcAggregator[0];
+    private TickDispatcher dispatcher;
+    private TickJournal journal;
 
     public void register(Observer obs) {
+        checkNotDispatching();
         observerList.add(obs);
     }
 
     public void unregister(Observer obs) {
+        checkNotDispatching();
         observerList.remove(obs);
     }
 
     public void changePrice(float newPrice) {
+        changePrice(newPrice, 1);
+    }
+
+    public void changePrice(float newPrice, long volume) {
+        // Only read the clock when a bar or the journal will use the timestamp
+        long now = aggregators.length > 0 || journal != null ? System.currentTimeMillis() : 0;
+        applyTick(newPrice, volume, now, true);
+    }
+
+    // Price change stamped by the caller, e.g. with the exchange time of the trade
+    public void changePrice(float newPrice, long volume, long timestampMillis) {
+        applyTick(newPrice, volume, timestampMillis, true);
+    }
+
+    // Re-delivers a recorded tick at its original time. Bars are built from the recorded
+    // timestamp, and the tick is not written to the journal a second time.
+    public void replayPrice(float price, long timestampMillis) {
+        applyTick(price, 1, timestampMillis, false);
+    }
+
+    public float getCurrentPrice() {
+        return currentPrice;
+    }
+
+    // Bars are built by the thread calling changePrice and can be read from any thread
+    public synchronized void addAggregator(OhlcAggregator aggregator) {
+        OhlcAggregator[] updated = Arrays.copyOf(aggregators, aggregators.length + 1);
+        updated[aggregators.length] = aggregator;
+        aggregators = updated;
+    }
+
+    // Hands ticks to a ring buffer and background workers instead of notifying inline
+    public void startAsyncDispatch(int bufferSize, int workerCount, int maxBatch) {
+        checkNotDispatching();
+        TickDispatcher newDispatcher = new TickDispatcher(bufferSize, workerCount, maxBatch);
+        newDispatcher.start(new ArrayList<>(observerList));
+        dispatcher = newDispatcher;
+    }
+
+    // Delivers any pending ticks, then returns to synchronous notification
+    public void stopAsyncDispatch() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+            dispatcher = null;
+        }
+    }
+
+    public TickDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    // Every subsequent price change is appended to the journal; pass null to stop recording
+    public void setJournal(TickJournal journal) {
+        this.journal = journal;
+    }
+
+    private void applyTick(float newPrice, long volume, long timestampMillis, boolean journaled) {
         this.currentPrice = newPrice;
+        for (OhlcAggregator aggregator : aggregators) {
+            aggregator.onTick(newPrice, volume, timestampMillis);
+        }
+        if (journaled) {
+            record(timestampMillis, newPrice);
+        }
         notifyAllObservers();
     }
 
+    private void record(long timestampMillis, float price) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(timestampMillis, price);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record tick", e);
+        }
+    }
+
     private void notifyAllObservers() {
+        if (dispatcher != null) {
+            dispatcher.publish(currentPrice);
+            return;
+        }
         for (Observer obs : observerList) {
             obs.onPriceUpdate(currentPrice);
         }
     }
+
+    private void checkNotDispatching() {
+        if (dispatcher != null) {
+            throw new IllegalStateException("Observers cannot change while async dispatch is running");
+        }
+    }
 }
@@ -0,0 +1,189 @@
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+// Registry of many symbols with their observer subscriptions.
+// Symbols are spread over a fixed number of ConcurrentHashMap shards. Each symbol
+// keeps its observers in a copy-on-write array swapped with CAS, so register and
+// unregister never take a lock and price fan-out reads a plain array. Symbol and
+// subscription counts are capped so the registry stays within a fixed memory budget.
+public class StockExchange {
+    private static final Observer[] NO_OBSERVERS = new Observer[0];
+
+    private final List<ConcurrentHashMap<String, Listing>> shards;
+    private final int shardMask;
+    private final long maxSymbols;
+    private final long maxSubscriptions;
+    private final AtomicLong symbolCount = new AtomicLong();
+    private final AtomicLong subscriptionCount = new AtomicLong();
+
+    public StockExchange(int shardCount, long maxSymbols, long maxSubscriptions) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("Shard count must be a power of two");
+        }
+        if (maxSymbols <= 0 || maxSubscriptions <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+        this.shardMask = shardCount - 1;
+        this.maxSymbols = maxSymbols;
+        this.maxSubscriptions = maxSubscriptions;
+    }
+
+    // Lists a symbol without subscribing to it; does nothing if it is already listed
+    public void list(String symbol) {
+        listingFor(symbol);
+    }
+
+    public void register(String symbol, Observer obs) {
+        if (obs == null) {
+            throw new IllegalArgumentException("Observer cannot be null");
+        }
+        Listing listing = listingFor(symbol);
+        reserve(subscriptionCount, maxSubscriptions, "subscription");
+        while (true) {
+            Observer[] current = listing.observers.get();
+            Observer[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = obs;
+            if (listing.observers.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    public boolean unregister(String symbol, Observer obs) {
+        Listing listing = shardFor(symbol).get(symbol);
+        if (listing == null) {
+            return false;
+        }
+        while (true) {
+            Observer[] current = listing.observers.get();
+            int index = indexOf(current, obs);
+            if (index < 0) {
+                return false;
+            }
+            Observer[] updated = current.length == 1 ? NO_OBSERVERS : new Observer[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            if (listing.observers.compareAndSet(current, updated)) {
+                subscriptionCount.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Updates one symbol and notifies its observers on the calling thread
+    public void changePrice(String symbol, float newPrice) {
+        Listing listing = shardFor(symbol).get(symbol);
+        if (listing == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        listing.publish(newPrice);
+    }
+
+    // Applies a batch of price changes, fanning out across symbols in parallel.
+    // A symbol should appear once per batch; repeated entries may be delivered in any order.
+    public void changePrices(String[] symbols, float[] prices) {
+        if (symbols.length != prices.length) {
+            throw new IllegalArgumentException("Symbols and prices must have the same length");
+        }
+        IntStream.range(0, symbols.length).parallel()
+                 .forEach(i -> changePrice(symbols[i], prices[i]));
+    }
+
+    public float getPrice(String symbol) {
+        Listing listing = shardFor(symbol).get(symbol);
+        if (listing == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        return listing.currentPrice;
+    }
+
+    public int getSubscriberCount(String symbol) {
+        Listing listing = shardFor(symbol).get(symbol);
+        return listing == null ? 0 : listing.observers.get().length;
+    }
+
+    public List<String> getSymbols() {
+        List<String> symbols = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, symbolCount.get()));
+        for (ConcurrentHashMap<String, Listing> shard : shards) {
+            symbols.addAll(shard.keySet());
+        }
+        return symbols;
+    }
+
+    public long getSymbolCount() {
+        return symbolCount.get();
+    }
+
+    public long getSubscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    private Listing listingFor(String symbol) {
+        ConcurrentHashMap<String, Listing> shard = shardFor(symbol);
+        Listing listing = shard.get(symbol);
+        if (listing != null) {
+            return listing;
+        }
+        reserve(symbolCount, maxSymbols, "symbol");
+        Listing created = new Listing();
+        listing = shard.putIfAbsent(symbol, created);
+        if (listing != null) {
+            // Another thread listed the symbol first
+            symbolCount.decrementAndGet();
+            return listing;
+        }
+        return created;
+    }
+
+    private ConcurrentHashMap<String, Listing> shardFor(String symbol) {
+        if (symbol == null || symbol.isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be empty");
+        }
+        int h = symbol.hashCode();
+        return shards.get((h ^ (h >>> 16)) & shardMask);
+    }
+
+    private static void reserve(AtomicLong counter, long limit, String what) {
+        while (true) {
+            long current = counter.get();
+            if (current >= limit) {
+                throw new IllegalStateException("Exchange " + what + " limit reached: " + limit);
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    private static int indexOf(Observer[] observers, Observer obs) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i] == obs) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static class Listing {
+        private final AtomicReference<Observer[]> observers = new AtomicReference<>(NO_OBSERVERS);
+        private volatile float currentPrice;
+
+        void publish(float newPrice) {
+            currentPrice = newPrice;
+            for (Observer obs : observers.get()) {
+                obs.onPriceUpdate(newPrice);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Measures tick throughput at 10k observers, inline versus through the TickDispatcher
+public class TickBenchmark {
+    private static final int OBSERVERS = 10_000;
+    private static final int TICKS = 200 * 1024;
+
+    public static void main(String[] args) {
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        System.out.println("Observers: " + OBSERVERS + ", ticks: " + TICKS + ", workers: " + workers);
+        run("Synchronous  ", false, workers);
+        run("Ring buffer  ", true, workers);
+    }
+
+    private static void run(String label, boolean async, int workers) {
+        Stock stock = new Stock();
+        LongAdder deliveries = new LongAdder();
+        for (int i = 0; i < OBSERVERS; i++) {
+            stock.register(new CountingInvestor(deliveries));
+        }
+        if (async) {
+            stock.startAsyncDispatch(1 << 14, workers, 1024);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            stock.changePrice(100.0f + (i % 100) * 0.01f);
+        }
+        stock.stopAsyncDispatch();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("%s %,12.0f ticks/s %,15.0f deliveries/s%n",
+                label, TICKS / seconds, deliveries.sum() / seconds);
+    }
+
+    // Observer that only counts, so the benchmark measures dispatch rather than printing
+    private static class CountingInvestor implements Observer {
+        private final LongAdder total;
+        private long seen;
+
+        CountingInvestor(LongAdder total) {
+            this.total = total;
+        }
+
+        @Override
+        public void onPriceUpdate(float latestPrice) {
+            if (++seen % 1024 == 0) {
+                total.add(1024);
+            }
+        }
+    }
+}
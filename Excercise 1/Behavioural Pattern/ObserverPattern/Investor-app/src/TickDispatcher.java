@@ -0,0 +1,220 @@
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-writer ring buffer between Stock.changePrice and the observers.
+// The producer writes a price into the ring and publishes its sequence; a fixed
+// set of worker threads each own a slice of the observers, read every tick
+// available since their last pass, and deliver them as one batch. Each observer's
+// last delivered sequence is tracked so lag can be inspected per investor.
+// An observer that throws does not stop its worker; the failure is counted and the
+// remaining observers still get the tick. If a worker dies anyway, or the dispatcher is
+// stopped, a publish waiting for ring space fails instead of spinning forever.
+public class TickDispatcher {
+    private static final int SPINS_BEFORE_PARK = 200;
+    private static final long PARK_NANOS = 50_000;
+
+    private final float[] ring;
+    private final int mask;
+    private final int maxBatch;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong failedDeliveries = new AtomicLong();
+    private final List<Worker> workers = new ArrayList<>();
+    private final Map<Observer, Worker> owners = new IdentityHashMap<>();
+    private volatile boolean running;
+    private volatile Throwable workerFailure;
+    private long cachedMinSequence = -1;
+
+    public TickDispatcher(int bufferSize, int workerCount, int maxBatch) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two");
+        }
+        if (workerCount <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Worker count and batch size must be positive");
+        }
+        this.ring = new float[bufferSize];
+        this.mask = bufferSize - 1;
+        this.maxBatch = maxBatch;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker(i));
+        }
+    }
+
+    // Observers are split round-robin across the workers
+    public synchronized void start(List<Observer> observers) {
+        if (running) {
+            throw new IllegalStateException("Dispatcher already running");
+        }
+        for (int i = 0; i < observers.size(); i++) {
+            Worker worker = workers.get(i % workers.size());
+            worker.add(observers.get(i), cursor.get());
+            owners.put(observers.get(i), worker);
+        }
+        running = true;
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    // Called only by the single producer thread
+    public void publish(float price) {
+        checkRunning();
+        long next = cursor.get() + 1;
+        long wrapPoint = next - ring.length;
+        if (wrapPoint > cachedMinSequence) {
+            long min;
+            // Wait for the slowest worker to free the slot we are about to overwrite
+            while (wrapPoint > (min = minWorkerSequence())) {
+                checkRunning();
+                Thread.onSpinWait();
+            }
+            cachedMinSequence = min;
+        }
+        ring[(int) (next & mask)] = price;
+        cursor.set(next);
+    }
+
+    // Waits until every published tick has been delivered, then stops the workers
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Number of onPriceUpdate calls that threw; those ticks were skipped for that observer only
+    public long getFailedDeliveries() {
+        return failedDeliveries.get();
+    }
+
+    public long getPublishedSequence() {
+        return cursor.get();
+    }
+
+    public long getDeliveredSequence(Observer observer) {
+        Worker worker = owners.get(observer);
+        if (worker == null) {
+            throw new IllegalArgumentException("Observer is not attached to this dispatcher");
+        }
+        return worker.deliveredSequence(observer);
+    }
+
+    private void checkRunning() {
+        Throwable failure = workerFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Tick worker died", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Dispatcher is not running");
+        }
+    }
+
+    private long minWorkerSequence() {
+        long min = Long.MAX_VALUE;
+        for (Worker worker : workers) {
+            min = Math.min(min, worker.sequence.get());
+        }
+        return min;
+    }
+
+    private class Worker implements Runnable {
+        private final Thread thread;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final List<Observer> observers = new ArrayList<>();
+        private long[] delivered = new long[16];
+        private final float[] batch = new float[maxBatch];
+
+        Worker(int index) {
+            this.thread = new Thread(this, "tick-worker-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void add(Observer observer, long startSequence) {
+            if (observers.size() == delivered.length) {
+                delivered = Arrays.copyOf(delivered, delivered.length * 2);
+            }
+            delivered[observers.size()] = startSequence;
+            observers.add(observer);
+        }
+
+        synchronized long deliveredSequence(Observer observer) {
+            for (int i = 0; i < observers.size(); i++) {
+                if (observers.get(i) == observer) {
+                    return delivered[i];
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void run() {
+            try {
+                deliverLoop();
+            } catch (Throwable t) {
+                workerFailure = t;
+                throw t;
+            }
+        }
+
+        private void deliverLoop() {
+            int idle = 0;
+            while (true) {
+                long next = sequence.get() + 1;
+                long available = cursor.get();
+                if (available < next) {
+                    if (!running) {
+                        // Re-read the cursor: ticks published just before stop() must still go out
+                        if (cursor.get() < next) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (++idle < SPINS_BEFORE_PARK) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+
+                long end = Math.min(available, next + maxBatch - 1);
+                int count = (int) (end - next + 1);
+                for (int i = 0; i < count; i++) {
+                    batch[i] = ring[(int) ((next + i) & mask)];
+                }
+                // Slots are copied out, so the producer may reuse them now
+                sequence.set(end);
+
+                synchronized (this) {
+                    for (int o = 0; o < observers.size(); o++) {
+                        Observer observer = observers.get(o);
+                        for (int i = 0; i < count; i++) {
+                            try {
+                                observer.onPriceUpdate(batch[i]);
+                            } catch (RuntimeException e) {
+                                failedDeliveries.incrementAndGet();
+                            }
+                        }
+                        delivered[o] = end;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Append-only binary journal of price ticks in a memory-mapped file.
+// Layout: a 16-byte header (magic, version, record count) followed by fixed
+// 12-byte records (long timestamp millis, float price). The file is mapped in
+// segments so journals can grow past 2 GB. Appends are plain stores into the
+// mapping; the record count in the header is updated after each record.
+// Mapping a segment for writing extends the file to the end of that segment, so a
+// journal takes 48 MB (4M records) on disk as soon as the first tick is written. Pass a
+// smaller segment size for short recordings; readers do not depend on it, since records
+// are laid out contiguously whatever the segment size.
+public class TickJournal implements AutoCloseable {
+    static final int MAGIC = 0x5449434B; // "TICK"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int COUNT_OFFSET = 8;
+    static final int RECORD_BYTES = 12;
+    static final int RECORDS_PER_SEGMENT = 1 << 22;
+    static final long SEGMENT_BYTES = (long) RECORDS_PER_SEGMENT * RECORD_BYTES;
+
+    private final int recordsPerSegment;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long count;
+
+    // Opens the journal for appending, creating it if needed
+    public TickJournal(Path path) throws IOException {
+        this(path, RECORDS_PER_SEGMENT);
+    }
+
+    // The file grows recordsPerSegment * 12 bytes at a time
+    public TickJournal(Path path, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0 || recordsPerSegment > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("Records per segment must be between 1 and "
+                    + Integer.MAX_VALUE / RECORD_BYTES);
+        }
+        this.recordsPerSegment = recordsPerSegment;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (fresh) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putLong(COUNT_OFFSET, 0);
+        } else {
+            checkHeader(header, path);
+            count = header.getLong(COUNT_OFFSET);
+        }
+    }
+
+    public synchronized void append(long timestampMillis, float price) throws IOException {
+        MappedByteBuffer segment = segmentFor(count);
+        int position = (int) ((count % recordsPerSegment) * RECORD_BYTES);
+        segment.putLong(position, timestampMillis);
+        segment.putFloat(position + 8, price);
+        count++;
+        header.putLong(COUNT_OFFSET, count);
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    // Forces written ticks to the storage device
+    public synchronized void sync() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    static void checkHeader(MappedByteBuffer header, Path path) throws IOException {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a tick journal: " + path);
+        }
+    }
+
+    private MappedByteBuffer segmentFor(long record) throws IOException {
+        int index = (int) (record / recordsPerSegment);
+        while (segments.size() <= index) {
+            segments.add(null);
+        }
+        MappedByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            long segmentBytes = (long) recordsPerSegment * RECORD_BYTES;
+            segment = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + index * segmentBytes, segmentBytes);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            segments.set(index, segment);
+        }
+        return segment;
+    }
+}
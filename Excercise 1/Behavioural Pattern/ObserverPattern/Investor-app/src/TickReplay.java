@@ -0,0 +1,86 @@
+
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read-only view of a TickJournal that replays ticks as fast as possible.
+// Records are read straight out of the mapped file with absolute gets, so no
+// bytes are copied and no objects are created per tick.
+public class TickReplay implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long count;
+
+    // Primitive callback, so replay never boxes
+    public interface TickConsumer {
+        void onTick(long timestampMillis, float price);
+    }
+
+    public TickReplay(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TickJournal.HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        TickJournal.checkHeader(header, path);
+        this.count = header.getLong(TickJournal.COUNT_OFFSET);
+
+        int segmentCount = (int) ((count + TickJournal.RECORDS_PER_SEGMENT - 1) / TickJournal.RECORDS_PER_SEGMENT);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long offset = TickJournal.HEADER_BYTES + i * TickJournal.SEGMENT_BYTES;
+            long length = Math.min(TickJournal.SEGMENT_BYTES,
+                    (count - (long) i * TickJournal.RECORDS_PER_SEGMENT) * TickJournal.RECORD_BYTES);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public long getTimestamp(long index) {
+        return segment(index).getLong(position(index));
+    }
+
+    public float getPrice(long index) {
+        return segment(index).getFloat(position(index) + 8);
+    }
+
+    public void forEach(TickConsumer consumer) {
+        long index = 0;
+        for (MappedByteBuffer segment : segments) {
+            int records = segment.capacity() / TickJournal.RECORD_BYTES;
+            for (int r = 0; r < records; r++, index++) {
+                int position = r * TickJournal.RECORD_BYTES;
+                consumer.onTick(segment.getLong(position), segment.getFloat(position + 8));
+            }
+        }
+    }
+
+    // Pushes every recorded tick through the stock and on to its observers, keeping the
+    // recorded timestamps so bars match the original feed
+    public long replayInto(Stock stock) {
+        forEach((timestamp, price) -> stock.replayPrice(price, timestamp));
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Tick " + index + " of " + count);
+        }
+        return segments[(int) (index / TickJournal.RECORDS_PER_SEGMENT)];
+    }
+
+    private static int position(long index) {
+        return (int) ((index % TickJournal.RECORDS_PER_SEGMENT) * TickJournal.RECORD_BYTES);
+    }
+}
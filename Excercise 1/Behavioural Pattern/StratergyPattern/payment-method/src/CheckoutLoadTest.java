@@ -0,0 +1,38 @@
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Pushes a burst of checkouts through CheckoutPipeline against SimulatedGateway
+// and prints the per-strategy metrics
+public class CheckoutLoadTest {
+    private static final int CHECKOUTS = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        try (SimulatedGateway gateway = new SimulatedGateway(200, 2_000, 0.02)) {
+            PaymentStrategy card = new CreditCardPayment("1234-5678-9876-5432", gateway);
+            PaymentStrategy payPal = new PayPalPayment("user@example.com", gateway);
+            CheckoutPipeline pipeline = new CheckoutPipeline(CHECKOUTS, 256, 32, 3, 5);
+
+            CompletableFuture<?>[] results = new CompletableFuture<?>[CHECKOUTS];
+            long begin = System.nanoTime();
+            for (int i = 0; i < CHECKOUTS; i++) {
+                PaymentStrategy strategy = (i & 1) == 0 ? card : payPal;
+                results[i] = pipeline.submit(strategy, 1 + ThreadLocalRandom.current().nextInt(500));
+            }
+            long failed = 0;
+            for (CompletableFuture<?> result : results) {
+                try {
+                    result.join();
+                } catch (RuntimeException e) {
+                    failed++;
+                }
+            }
+            double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+            pipeline.close();
+
+            System.out.printf("%,d checkouts in %.2fs (%,.0f/s), %d failed after retries, %,d gateway round trips%n",
+                    CHECKOUTS, seconds, CHECKOUTS / seconds, failed, gateway.getRoundTrips());
+            System.out.print(pipeline.getMetrics().report());
+        }
+    }
+}
@@ -0,0 +1,266 @@
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Queues checkouts and pushes them through PaymentStrategy.processPaymentAsync in batches.
+// A dispatcher thread drains the queue, groups requests by strategy type and gateway, and
+// sends each group as one batch. Strategies backed by a PaymentGateway go out in a single
+// chargeBatch request; others are started one by one. A semaphore caps the number of batches in flight, so a slow gateway
+// pushes back on the queue instead of piling up futures. Payments the gateway reports as
+// not charged (PaymentGateway.NotChargedException) are retried with exponential backoff and
+// jitter, and go back through the queue to join a later batch. Any other failure may have
+// moved money or is a programming error, so it fails the checkout straight away.
+public class CheckoutPipeline implements AutoCloseable {
+    private final BlockingQueue<Checkout> queue;
+    private final int maxBatch;
+    private final Semaphore inFlight;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final PaymentMetrics metrics = new PaymentMetrics();
+    private final ScheduledExecutorService retryTimer;
+    private final Thread dispatcher;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean accepting = true;
+
+    public CheckoutPipeline(int queueCapacity, int maxBatch, int maxConcurrentBatches,
+                            int maxRetries, long baseBackoffMillis) {
+        if (queueCapacity <= 0 || maxBatch <= 0 || maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("Queue capacity, batch size and concurrency must be positive");
+        }
+        if (maxRetries < 0 || baseBackoffMillis < 0) {
+            throw new IllegalArgumentException("Retries and backoff cannot be negative");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.inFlight = new Semaphore(maxConcurrentBatches);
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.retryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "checkout-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "checkout-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    // Completes when the payment succeeds, or exceptionally once retries are exhausted.
+    // Fails immediately if the queue is full or the pipeline is closed.
+    public CompletableFuture<Void> submit(PaymentStrategy strategy, int amount) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Payment strategy cannot be null");
+        }
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        Checkout checkout = new Checkout(strategy, amount);
+        if (!accepting) {
+            checkout.result.completeExceptionally(new IllegalStateException("Checkout pipeline is closed"));
+            return checkout.result;
+        }
+        outstanding.incrementAndGet();
+        if (!queue.offer(checkout)) {
+            finish(checkout, new IllegalStateException("Checkout queue is full"));
+        }
+        return checkout.result;
+    }
+
+    public PaymentMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    // Stops accepting checkouts and waits for everything already submitted to finish
+    @Override
+    public void close() {
+        accepting = false;
+        try {
+            synchronized (outstanding) {
+                while (outstanding.get() > 0) {
+                    outstanding.wait();
+                }
+            }
+            dispatcher.interrupt();
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            dispatcher.interrupt();
+            Thread.currentThread().interrupt();
+        } finally {
+            retryTimer.shutdownNow();
+            // Fail whatever is still queued, including a submit that raced with close
+            Checkout late;
+            while ((late = queue.poll()) != null) {
+                finish(late, new IllegalStateException("Checkout pipeline is closed"));
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Checkout> drained = new ArrayList<>();
+        Map<GroupKey, List<Checkout>> groups = new LinkedHashMap<>();
+        try {
+            while (true) {
+                drained.add(queue.take());
+                queue.drainTo(drained, maxBatch * 16 - 1);
+                for (Checkout checkout : drained) {
+                    GroupKey key;
+                    try {
+                        key = new GroupKey(checkout.strategy.getClass(), checkout.strategy.getGateway());
+                    } catch (RuntimeException e) {
+                        // A faulty strategy fails its own checkout, not the dispatcher
+                        finish(checkout, e);
+                        continue;
+                    }
+                    groups.computeIfAbsent(key, k -> new ArrayList<>()).add(checkout);
+                }
+                drained.clear();
+                for (Map.Entry<GroupKey, List<Checkout>> entry : groups.entrySet()) {
+                    List<Checkout> group = entry.getValue();
+                    for (int from = 0; from < group.size(); from += maxBatch) {
+                        inFlight.acquire();
+                        sendBatch(entry.getKey().gateway,
+                                new ArrayList<>(group.subList(from, Math.min(group.size(), from + maxBatch))));
+                    }
+                }
+                groups.clear();
+            }
+        } catch (InterruptedException e) {
+            // close() interrupts only once nothing is outstanding
+        }
+    }
+
+    private void sendBatch(PaymentGateway gateway, List<Checkout> batch) {
+        metrics.statsFor(batch.get(0).strategy).batches.increment();
+        List<CompletableFuture<Void>> sent = gateway != null ? chargeBatch(gateway, batch) : chargeEach(batch);
+        CompletableFuture<?>[] replies = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Checkout checkout = batch.get(i);
+            replies[i] = sent.get(i).whenComplete((ignored, error) -> onReply(checkout, error));
+        }
+        CompletableFuture.allOf(replies).whenComplete((ignored, error) -> inFlight.release());
+    }
+
+    private static List<CompletableFuture<Void>> chargeBatch(PaymentGateway gateway, List<Checkout> batch) {
+        try {
+            List<PaymentGateway.Charge> charges = new ArrayList<>(batch.size());
+            for (Checkout checkout : batch) {
+                charges.add(checkout.strategy.toCharge(checkout.amount));
+            }
+            List<CompletableFuture<Void>> replies = gateway.chargeBatch(charges);
+            if (replies.size() != batch.size()) {
+                throw new IllegalStateException("Gateway returned " + replies.size()
+                        + " replies for " + batch.size() + " charges");
+            }
+            return replies;
+        } catch (RuntimeException e) {
+            // The whole request failed, so every charge in it did
+            List<CompletableFuture<Void>> failed = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                failed.add(CompletableFuture.failedFuture(e));
+            }
+            return failed;
+        }
+    }
+
+    private static List<CompletableFuture<Void>> chargeEach(List<Checkout> batch) {
+        List<CompletableFuture<Void>> replies = new ArrayList<>(batch.size());
+        for (Checkout checkout : batch) {
+            try {
+                replies.add(checkout.strategy.processPaymentAsync(checkout.amount));
+            } catch (RuntimeException e) {
+                replies.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return replies;
+    }
+
+    private void onReply(Checkout checkout, Throwable error) {
+        if (error == null) {
+            finish(checkout, null);
+        } else if (checkout.attempts < maxRetries && unwrap(error) instanceof PaymentGateway.NotChargedException) {
+            long backoff = (baseBackoffMillis << checkout.attempts) + ThreadLocalRandom.current().nextLong(baseBackoffMillis + 1);
+            checkout.attempts++;
+            metrics.statsFor(checkout.strategy).retried.increment();
+            retryTimer.schedule(() -> {
+                if (!queue.offer(checkout)) {
+                    finish(checkout, new IllegalStateException("Checkout queue is full"));
+                }
+            }, backoff, TimeUnit.MILLISECONDS);
+        } else {
+            finish(checkout, unwrap(error));
+        }
+    }
+
+    private void finish(Checkout checkout, Throwable error) {
+        metrics.statsFor(checkout.strategy).recordOutcome(error == null, System.nanoTime() - checkout.submittedNanos);
+        if (error == null) {
+            checkout.result.complete(null);
+        } else {
+            checkout.result.completeExceptionally(error);
+        }
+        if (outstanding.decrementAndGet() == 0) {
+            synchronized (outstanding) {
+                outstanding.notifyAll();
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+    }
+
+    // Checkouts are batched together only if they share a strategy type and a gateway
+    private static final class GroupKey {
+        final Class<?> type;
+        final PaymentGateway gateway;
+
+        GroupKey(Class<?> type, PaymentGateway gateway) {
+            this.type = type;
+            this.gateway = gateway;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey other = (GroupKey) obj;
+            return type == other.type && gateway == other.gateway;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + System.identityHashCode(gateway);
+        }
+    }
+
+    private static class Checkout {
+        final PaymentStrategy strategy;
+        final int amount;
+        final long submittedNanos = System.nanoTime();
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        int attempts;
+
+        Checkout(PaymentStrategy strategy, int amount) {
+            this.strategy = strategy;
+            this.amount = amount;
+        }
+    }
+}
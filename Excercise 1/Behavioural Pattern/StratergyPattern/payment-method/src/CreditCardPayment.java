@@ -1,14 +1,40 @@
 
+import java.util.concurrent.CompletableFuture;
+
 // Concrete Strategy
 public class CreditCardPayment implements PaymentStrategy {
     private final String cardNumber;
+    private final PaymentGateway gateway;
 
     public CreditCardPayment(String cardNumber) {
+        this(cardNumber, null);
+    }
+
+    public CreditCardPayment(String cardNumber, PaymentGateway gateway) {
         this.cardNumber = cardNumber;
+        this.gateway = gateway;
     }
 
     @Override
     public void processPayment(int amount) {
         System.out.println(amount + " paid using Credit Card [" + cardNumber + "]");
     }
+
+    @Override
+    public CompletableFuture<Void> processPaymentAsync(int amount) {
+        if (gateway == null) {
+            return PaymentStrategy.super.processPaymentAsync(amount);
+        }
+        return gateway.charge("Credit Card", cardNumber, amount);
+    }
+
+    @Override
+    public PaymentGateway getGateway() {
+        return gateway;
+    }
+
+    @Override
+    public PaymentGateway.Charge toCharge(int amount) {
+        return new PaymentGateway.Charge("Credit Card", cardNumber, amount);
+    }
 }
@@ -1,14 +1,40 @@
 
+import java.util.concurrent.CompletableFuture;
+
 // Concrete Strategy
 public class PayPalPayment implements PaymentStrategy {
     private final String email;
+    private final PaymentGateway gateway;
 
     public PayPalPayment(String email) {
+        this(email, null);
+    }
+
+    public PayPalPayment(String email, PaymentGateway gateway) {
         this.email = email;
+        this.gateway = gateway;
     }
 
     @Override
     public void processPayment(int amount) {
         System.out.println(amount + " paid via PayPal account: " + email);
     }
+
+    @Override
+    public CompletableFuture<Void> processPaymentAsync(int amount) {
+        if (gateway == null) {
+            return PaymentStrategy.super.processPaymentAsync(amount);
+        }
+        return gateway.charge("PayPal", email, amount);
+    }
+
+    @Override
+    public PaymentGateway getGateway() {
+        return gateway;
+    }
+
+    @Override
+    public PaymentGateway.Charge toCharge(int amount) {
+        return new PaymentGateway.Charge("PayPal", email, amount);
+    }
 }
@@ -0,0 +1,45 @@
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Remote payment provider that strategies can charge asynchronously
+public interface PaymentGateway {
+    CompletableFuture<Void> charge(String method, String account, int amount);
+
+    // Sends several charges in one request so the round trip is paid once per batch.
+    // Returns one future per charge, in the same order. The default sends them one by one.
+    default List<CompletableFuture<Void>> chargeBatch(List<Charge> charges) {
+        List<CompletableFuture<Void>> replies = new ArrayList<>(charges.size());
+        for (Charge charge : charges) {
+            replies.add(charge(charge.method, charge.account, charge.amount));
+        }
+        return replies;
+    }
+
+    // One entry of a batch
+    final class Charge {
+        final String method;
+        final String account;
+        final int amount;
+
+        public Charge(String method, String account, int amount) {
+            if (amount <= 0) {
+                throw new IllegalArgumentException("Amount must be positive");
+            }
+            this.method = method;
+            this.account = account;
+            this.amount = amount;
+        }
+    }
+
+    // Failure the gateway reports only when it knows no money moved, so the charge is safe
+    // to send again. Any other failure may have been charged and must not be retried blindly.
+    class NotChargedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public NotChargedException(String message) {
+            super(message);
+        }
+    }
+}
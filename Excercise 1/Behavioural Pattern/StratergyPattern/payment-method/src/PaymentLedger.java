@@ -0,0 +1,420 @@
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+// Records payments under an idempotency key so a retried checkout is never charged twice.
+// A payment is logged in two steps: a PENDING intent is forced to disk before the strategy
+// is called, and a COMPLETED (or FAILED) record after it returns. If the process dies in
+// between, the key stays PENDING after restart, and charge() refuses it rather than risk a
+// second charge until resolve() records what the payment provider says happened.
+// Concurrent callers share one write and one fsync (group commit): whoever finds no flush in
+// progress writes everything queued so far, and the others wait for it. Keys are indexed by a
+// 128-bit fingerprint in an off-heap open-addressing table, rebuilt on open by replaying the log.
+public class PaymentLedger implements AutoCloseable {
+    private static final int MAX_KEY_BYTES = 1024;
+    // The record's state goes in the top byte of its key length field
+    private static final int STATE_SHIFT = 24;
+    private static final int KEY_LENGTH_MASK = (1 << STATE_SHIFT) - 1;
+
+    public enum State {
+        PENDING,
+        COMPLETED,
+        FAILED;
+
+        int code() {
+            return ordinal() + 1;
+        }
+
+        static State fromCode(int code) {
+            return values()[code - 1];
+        }
+    }
+
+    private final FileChannel channel;
+    private final OffHeapIndex index = new OffHeapIndex(1 << 16);
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+    private ByteArrayOutputStream batch = new ByteArrayOutputStream(4096);
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private IOException failure;
+    private boolean closed;
+
+    // Opens the ledger, replaying the log; a torn record at the tail is cut off
+    public PaymentLedger(Path logFile) throws IOException {
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validBytes = replay();
+        if (validBytes < channel.size()) {
+            channel.truncate(validBytes);
+        }
+        channel.position(validBytes);
+    }
+
+    // Charges through the strategy unless the key was already used.
+    // Returns false for a duplicate, including one still in progress on another thread.
+    // Throws IllegalStateException if an earlier attempt with this key may or may not have
+    // been charged (see resolve). A key whose last attempt FAILED can be charged again.
+    public boolean charge(String idempotencyKey, PaymentStrategy strategy, int amount) throws IOException {
+        byte[] key = toKeyBytes(idempotencyKey);
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (!inProgress.add(idempotencyKey)) {
+            return false;
+        }
+        try {
+            long h1 = hash(key, 0xcbf29ce484222325L);
+            long h2 = hash(key, 0x84222325cbf29ce4L);
+            synchronized (this) {
+                checkOpen();
+                int slot = index.find(h1, h2);
+                if (slot >= 0 && index.stateAt(slot) == State.COMPLETED) {
+                    return false;
+                }
+                if (slot >= 0 && index.stateAt(slot) == State.PENDING) {
+                    throw new IllegalStateException("Payment for key " + idempotencyKey
+                            + " was interrupted and may have been charged; call resolve() first");
+                }
+            }
+            // The intent must be on disk before any money moves
+            awaitDurable(append(key, h1, h2, amount, State.PENDING));
+            try {
+                strategy.processPayment(amount);
+            } catch (RuntimeException e) {
+                // The strategy reported a failure, so the same key may be retried
+                try {
+                    awaitDurable(append(key, h1, h2, amount, State.FAILED));
+                } catch (IOException | RuntimeException logError) {
+                    e.addSuppressed(logError);
+                }
+                throw e;
+            }
+            awaitDurable(append(key, h1, h2, amount, State.COMPLETED));
+            return true;
+        } finally {
+            inProgress.remove(idempotencyKey);
+        }
+    }
+
+    // Settles a PENDING payment left by a crash, once the provider has said whether it was
+    // charged. A payment resolved as not charged can be retried with the same key.
+    public void resolve(String idempotencyKey, boolean charged) throws IOException {
+        byte[] key = toKeyBytes(idempotencyKey);
+        if (!inProgress.add(idempotencyKey)) {
+            throw new IllegalStateException("Payment for key " + idempotencyKey + " is in progress");
+        }
+        try {
+            long h1 = hash(key, 0xcbf29ce484222325L);
+            long h2 = hash(key, 0x84222325cbf29ce4L);
+            long seq;
+            synchronized (this) {
+                checkOpen();
+                int slot = index.find(h1, h2);
+                if (slot < 0 || index.stateAt(slot) != State.PENDING) {
+                    throw new IllegalStateException("No unresolved payment for key " + idempotencyKey);
+                }
+                seq = append(key, h1, h2, index.amountAt(slot), charged ? State.COMPLETED : State.FAILED);
+            }
+            awaitDurable(seq);
+        } finally {
+            inProgress.remove(idempotencyKey);
+        }
+    }
+
+    // True once the payment for the key has completed
+    public synchronized boolean contains(String idempotencyKey) {
+        return getState(idempotencyKey) == State.COMPLETED;
+    }
+
+    // Last recorded state for the key, or null if it was never used
+    public synchronized State getState(String idempotencyKey) {
+        byte[] key = toKeyBytes(idempotencyKey);
+        int slot = index.find(hash(key, 0xcbf29ce484222325L), hash(key, 0x84222325cbf29ce4L));
+        return slot < 0 ? null : index.stateAt(slot);
+    }
+
+    // Keys that may have been charged before a crash and need resolve()
+    public synchronized long getPendingCount() {
+        return index.pending();
+    }
+
+    // Amount recorded for the key, or -1 if there is none
+    public synchronized int getAmount(String idempotencyKey) {
+        byte[] key = toKeyBytes(idempotencyKey);
+        int slot = index.find(hash(key, 0xcbf29ce484222325L), hash(key, 0x84222325cbf29ce4L));
+        return slot < 0 ? -1 : index.amountAt(slot);
+    }
+
+    public synchronized long size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (flushing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        channel.close();
+    }
+
+    private synchronized long append(byte[] key, long h1, long h2, int amount, State state) throws IOException {
+        checkOpen();
+        // Record: state and key length, key, amount, timestamp, then a CRC32 of everything before it
+        ByteBuffer record = ByteBuffer.allocate(4 + key.length + 12 + 4);
+        record.putInt(state.code() << STATE_SHIFT | key.length).put(key).putInt(amount)
+                .putLong(System.currentTimeMillis());
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        batch.write(record.array(), 0, record.capacity());
+        index.put(h1, h2, amount, state);
+        return ++appendedSeq;
+    }
+
+    private void awaitDurable(long seq) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                byte[] bytes;
+                long target;
+                synchronized (this) {
+                    while (true) {
+                        if (durableSeq >= seq) {
+                            return;
+                        }
+                        if (failure != null) {
+                            throw new IOException("Payment ledger is unusable after a write failure", failure);
+                        }
+                        if (!flushing) {
+                            break;
+                        }
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            // The record must be durable before the caller acts on it, so keep waiting
+                            interrupted = true;
+                        }
+                    }
+                    // Become the leader: take everything queued so far and flush it in one write
+                    flushing = true;
+                    bytes = batch.toByteArray();
+                    batch = new ByteArrayOutputStream(Math.max(4096, bytes.length));
+                    target = appendedSeq;
+                }
+                IOException error = null;
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    error = e;
+                }
+                synchronized (this) {
+                    flushing = false;
+                    if (error != null) {
+                        failure = error;
+                    } else {
+                        durableSeq = target;
+                    }
+                    notifyAll();
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long replay() throws IOException {
+        long validBytes = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        CRC32 crc = new CRC32();
+        while (true) {
+            try {
+                int header = in.readInt();
+                int stateCode = header >>> STATE_SHIFT;
+                int keyLength = header & KEY_LENGTH_MASK;
+                if (keyLength <= 0 || keyLength > MAX_KEY_BYTES
+                        || stateCode == 0 || stateCode > State.values().length) {
+                    break;
+                }
+                byte[] record = new byte[4 + keyLength + 12];
+                ByteBuffer.wrap(record).putInt(header);
+                in.readFully(record, 4, record.length - 4);
+                int storedCrc = in.readInt();
+                crc.reset();
+                crc.update(record, 0, record.length);
+                if ((int) crc.getValue() != storedCrc) {
+                    break;
+                }
+                byte[] key = new byte[keyLength];
+                System.arraycopy(record, 4, key, 0, keyLength);
+                int amount = ByteBuffer.wrap(record, 4 + keyLength, 4).getInt();
+                // Later records for a key replace earlier ones
+                index.put(hash(key, 0xcbf29ce484222325L), hash(key, 0x84222325cbf29ce4L), amount,
+                        State.fromCode(stateCode));
+                validBytes += record.length + 4;
+            } catch (EOFException e) {
+                break;
+            }
+        }
+        return validBytes;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Payment ledger is closed");
+        }
+    }
+
+    private static byte[] toKeyBytes(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be empty");
+        }
+        byte[] key = idempotencyKey.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Idempotency key is longer than " + MAX_KEY_BYTES + " bytes");
+        }
+        return key;
+    }
+
+    // FNV-1a with a final avalanche; two seeds give a 128-bit fingerprint
+    private static long hash(byte[] key, long seed) {
+        long h = seed;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    // Open-addressing table in a direct buffer: 24-byte slots of (h1, h2, state << 32 | amount).
+    // A slot whose two fingerprint halves are both zero is empty.
+    private static class OffHeapIndex {
+        private static final int SLOT_BYTES = 24;
+
+        private ByteBuffer slots;
+        private int mask;
+        private long size;
+        private long pending;
+
+        OffHeapIndex(int capacity) {
+            this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+            this.mask = capacity - 1;
+        }
+
+        int find(long h1, long h2) {
+            if (h1 == 0 && h2 == 0) {
+                h2 = 1;
+            }
+            for (int slot = (int) h1 & mask; ; slot = (slot + 1) & mask) {
+                long s1 = slots.getLong(slot * SLOT_BYTES);
+                long s2 = slots.getLong(slot * SLOT_BYTES + 8);
+                if (s1 == 0 && s2 == 0) {
+                    return -1;
+                }
+                if (s1 == h1 && s2 == h2) {
+                    return slot;
+                }
+            }
+        }
+
+        int amountAt(int slot) {
+            return (int) slots.getLong(slot * SLOT_BYTES + 16);
+        }
+
+        State stateAt(int slot) {
+            return State.fromCode((int) (slots.getLong(slot * SLOT_BYTES + 16) >>> 32));
+        }
+
+        // Inserts the key or replaces its amount and state
+        void put(long h1, long h2, int amount, State state) {
+            if (h1 == 0 && h2 == 0) {
+                h2 = 1;
+            }
+            long value = (long) state.code() << 32 | (amount & 0xFFFFFFFFL);
+            int slot = find(h1, h2);
+            if (slot >= 0) {
+                if (stateAt(slot) == State.PENDING) {
+                    pending--;
+                }
+                slots.putLong(slot * SLOT_BYTES + 16, value);
+            } else {
+                // Keep the table at most half full
+                if ((size + 1) * 2 > mask + 1) {
+                    grow();
+                }
+                place(h1, h2, value);
+                size++;
+            }
+            if (state == State.PENDING) {
+                pending++;
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        long pending() {
+            return pending;
+        }
+
+        private void place(long h1, long h2, long value) {
+            int slot = (int) h1 & mask;
+            while (slots.getLong(slot * SLOT_BYTES) != 0 || slots.getLong(slot * SLOT_BYTES + 8) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots.putLong(slot * SLOT_BYTES, h1);
+            slots.putLong(slot * SLOT_BYTES + 8, h2);
+            slots.putLong(slot * SLOT_BYTES + 16, value);
+        }
+
+        private void grow() {
+            int capacity = (mask + 1) * 2;
+            if ((long) capacity * SLOT_BYTES > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Payment ledger index is full");
+            }
+            ByteBuffer old = slots;
+            int oldCapacity = mask + 1;
+            slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+            mask = capacity - 1;
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                long h1 = old.getLong(slot * SLOT_BYTES);
+                long h2 = old.getLong(slot * SLOT_BYTES + 8);
+                if (h1 != 0 || h2 != 0) {
+                    place(h1, h2, old.getLong(slot * SLOT_BYTES + 16));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-strategy counters for the checkout pipeline.
+// Latency runs from submit to final outcome, so it includes queueing, batching and retries.
+public class PaymentMetrics {
+    private final Map<String, Stats> byStrategy = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    Stats statsFor(PaymentStrategy strategy) {
+        return byStrategy.computeIfAbsent(strategy.getClass().getSimpleName(), name -> new Stats());
+    }
+
+    public long getSucceeded(String strategy) {
+        Stats stats = byStrategy.get(strategy);
+        return stats == null ? 0 : stats.succeeded.sum();
+    }
+
+    public long getFailed(String strategy) {
+        Stats stats = byStrategy.get(strategy);
+        return stats == null ? 0 : stats.failed.sum();
+    }
+
+    public long getRetried(String strategy) {
+        Stats stats = byStrategy.get(strategy);
+        return stats == null ? 0 : stats.retried.sum();
+    }
+
+    public String report() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        StringBuilder sb = new StringBuilder();
+        byStrategy.forEach((name, stats) -> {
+            long done = stats.succeeded.sum() + stats.failed.sum();
+            sb.append(String.format("%-18s ok=%d failed=%d retries=%d batches=%d throughput=%.0f/s avg=%.2fms max=%.2fms%n",
+                    name, stats.succeeded.sum(), stats.failed.sum(), stats.retried.sum(), stats.batches.sum(),
+                    stats.succeeded.sum() / seconds,
+                    done == 0 ? 0.0 : stats.totalNanos.sum() / (double) done / 1_000_000,
+                    stats.maxNanos.get() / 1_000_000.0));
+        });
+        return sb.toString();
+    }
+
+    static class Stats {
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder retried = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void recordOutcome(boolean success, long latencyNanos) {
+            (success ? succeeded : failed).increment();
+            totalNanos.add(latencyNanos);
+            maxNanos.accumulateAndGet(latencyNanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Strategy that picks another strategy per payment.
+// Rules map amount ranges to candidate strategies in preference order. They are compiled
+// into a table of sorted range starts with one candidate array per range, and the table is
+// cached until the rules change. Each payment binary-searches the table and picks the
+// available candidate with the best observed latency and failure rate, without allocating.
+// Every PROBE_INTERVAL decisions the payment goes instead to the candidate chosen least
+// recently, whatever its score, so a route that was slow or failing gets fresh samples
+// and can win again once it recovers.
+public class PaymentRouter implements PaymentStrategy {
+    private static final double ALPHA = 0.1;
+    private static final double FAILURE_PENALTY = 10.0;
+    private static final double MAX_FAILURE_RATE = 0.5;
+    private static final int PROBE_INTERVAL = 100;
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Map<PaymentStrategy, Route> routes = new IdentityHashMap<>();
+    private final AtomicLong decisions = new AtomicLong();
+    private Route[] defaults = new Route[0];
+    private volatile RouteTable table;
+
+    // Adds an inclusive amount range; earlier candidates are preferred when health is equal
+    public synchronized void addRule(int minAmount, int maxAmount, PaymentStrategy... candidates) {
+        if (minAmount > maxAmount) {
+            throw new IllegalArgumentException("Minimum amount cannot exceed maximum amount");
+        }
+        rules.add(new Rule(minAmount, maxAmount, toRoutes(candidates)));
+        table = null;
+    }
+
+    // Candidates for amounts that match no rule
+    public synchronized void setDefault(PaymentStrategy... candidates) {
+        defaults = toRoutes(candidates);
+        table = null;
+    }
+
+    // Takes a strategy out of rotation (or puts it back) without recompiling the rules
+    public synchronized void setAvailable(PaymentStrategy strategy, boolean available) {
+        routeFor(strategy).available = available;
+    }
+
+    public PaymentStrategy route(int amount) {
+        return select(amount).strategy;
+    }
+
+    @Override
+    public void processPayment(int amount) {
+        Route route = select(amount);
+        long start = System.nanoTime();
+        try {
+            route.strategy.processPayment(amount);
+        } catch (RuntimeException e) {
+            route.record(System.nanoTime() - start, false);
+            throw e;
+        }
+        route.record(System.nanoTime() - start, true);
+    }
+
+    @Override
+    public CompletableFuture<Void> processPaymentAsync(int amount) {
+        Route route = select(amount);
+        long start = System.nanoTime();
+        return route.strategy.processPaymentAsync(amount)
+                .whenComplete((ignored, error) -> route.record(System.nanoTime() - start, error == null));
+    }
+
+    public synchronized double getLatencyMicros(PaymentStrategy strategy) {
+        return routeFor(strategy).latencyMicros;
+    }
+
+    public synchronized double getFailureRate(PaymentStrategy strategy) {
+        return routeFor(strategy).failureRate;
+    }
+
+    private Route select(int amount) {
+        RouteTable current = table;
+        if (current == null) {
+            current = compile();
+        }
+        Route[] candidates = current.candidatesFor(amount);
+        long decision = decisions.incrementAndGet();
+        boolean probe = decision % PROBE_INTERVAL == 0;
+        Route best = null;
+        double bestScore = Double.MAX_VALUE;
+        Route fallback = null;
+        Route stalest = null;
+        for (Route route : candidates) {
+            if (!route.available) {
+                continue;
+            }
+            if (fallback == null) {
+                fallback = route;
+            }
+            if (probe && (stalest == null || route.lastChosen < stalest.lastChosen)) {
+                stalest = route;
+            }
+            double failureRate = route.failureRate;
+            if (failureRate > MAX_FAILURE_RATE) {
+                continue;
+            }
+            double score = route.latencyMicros * (1 + FAILURE_PENALTY * failureRate);
+            if (score < bestScore) {
+                best = route;
+                bestScore = score;
+            }
+        }
+        Route chosen = stalest != null ? stalest : best != null ? best : fallback;
+        if (chosen == null) {
+            throw new IllegalStateException("No payment method available for amount " + amount);
+        }
+        chosen.lastChosen = decision;
+        return chosen;
+    }
+
+    private synchronized RouteTable compile() {
+        if (table != null) {
+            return table;
+        }
+        // Every rule edge starts a new segment; a segment's candidates are the matching rules in order
+        TreeSet<Integer> edges = new TreeSet<>();
+        for (Rule rule : rules) {
+            edges.add(rule.min);
+            if (rule.max < Integer.MAX_VALUE) {
+                edges.add(rule.max + 1);
+            }
+        }
+        int[] starts = new int[edges.size()];
+        Route[][] candidates = new Route[edges.size()][];
+        int segment = 0;
+        for (int edge : edges) {
+            List<Route> matching = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (rule.min <= edge && edge <= rule.max) {
+                    for (Route route : rule.candidates) {
+                        if (!matching.contains(route)) {
+                            matching.add(route);
+                        }
+                    }
+                }
+            }
+            starts[segment] = edge;
+            candidates[segment] = matching.isEmpty() ? defaults : matching.toArray(new Route[0]);
+            segment++;
+        }
+        table = new RouteTable(starts, candidates, defaults);
+        return table;
+    }
+
+    private Route[] toRoutes(PaymentStrategy[] candidates) {
+        if (candidates == null || candidates.length == 0) {
+            throw new IllegalArgumentException("At least one payment method is required");
+        }
+        Route[] result = new Route[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] == null || candidates[i] == this) {
+                throw new IllegalArgumentException("Invalid payment method");
+            }
+            result[i] = routes.computeIfAbsent(candidates[i], Route::new);
+        }
+        return result;
+    }
+
+    private Route routeFor(PaymentStrategy strategy) {
+        Route route = routes.get(strategy);
+        if (route == null) {
+            throw new IllegalArgumentException("Payment method is not routed");
+        }
+        return route;
+    }
+
+    private static class Rule {
+        final int min;
+        final int max;
+        final Route[] candidates;
+
+        Rule(int min, int max, Route[] candidates) {
+            this.min = min;
+            this.max = max;
+            this.candidates = candidates;
+        }
+    }
+
+    private static class RouteTable {
+        final int[] starts;
+        final Route[][] candidates;
+        final Route[] defaults;
+
+        RouteTable(int[] starts, Route[][] candidates, Route[] defaults) {
+            this.starts = starts;
+            this.candidates = candidates;
+            this.defaults = defaults;
+        }
+
+        Route[] candidatesFor(int amount) {
+            int index = Arrays.binarySearch(starts, amount);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < 0 ? defaults : candidates[index];
+        }
+    }
+
+    // Health of one strategy, kept as exponentially weighted moving averages
+    private static class Route {
+        final PaymentStrategy strategy;
+        volatile boolean available = true;
+        volatile double latencyMicros;
+        volatile double failureRate;
+        // Decision number when this route was last picked, used to find probe targets
+        volatile long lastChosen;
+
+        Route(PaymentStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        synchronized void record(long latencyNanos, boolean success) {
+            double micros = latencyNanos / 1_000.0;
+            latencyMicros = latencyMicros == 0 ? micros : latencyMicros + ALPHA * (micros - latencyMicros);
+            failureRate += ALPHA * ((success ? 0 : 1) - failureRate);
+        }
+    }
+}
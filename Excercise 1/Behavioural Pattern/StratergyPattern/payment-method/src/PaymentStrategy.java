@@ -1,5 +1,23 @@
 
+import java.util.concurrent.CompletableFuture;
+
 // Strategy Interface
 public interface PaymentStrategy {
     void processPayment(int amount);
+
+    // Asynchronous form used by CheckoutPipeline. The default runs processPayment on the
+    // common pool; strategies backed by a PaymentGateway complete when the gateway replies.
+    default CompletableFuture<Void> processPaymentAsync(int amount) {
+        return CompletableFuture.runAsync(() -> processPayment(amount));
+    }
+
+    // Gateway that can take this payment as part of a batch, or null if it must be sent alone
+    default PaymentGateway getGateway() {
+        return null;
+    }
+
+    // Batch entry for this payment; only called when getGateway() is not null
+    default PaymentGateway.Charge toCharge(int amount) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be batched");
+    }
 }
@@ -0,0 +1,41 @@
+
+import java.lang.management.ManagementFactory;
+
+// Measures the cost of a routing decision and the bytes it allocates
+public class RoutingBenchmark {
+    private static final int DECISIONS = 20_000_000;
+
+    public static void main(String[] args) {
+        PaymentStrategy card = amount -> { };
+        PaymentStrategy payPal = amount -> { };
+        PaymentStrategy wire = amount -> { };
+
+        PaymentRouter router = new PaymentRouter();
+        router.addRule(1, 500, card, payPal);
+        router.addRule(200, 10_000, payPal, wire);
+        router.addRule(10_001, Integer.MAX_VALUE, wire);
+        router.setDefault(card);
+        for (int i = 0; i < 1_000; i++) {
+            router.processPayment(1 + i % 20_000);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < 3; round++) {
+            long sink = 0;
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long begin = System.nanoTime();
+            for (int i = 0; i < DECISIONS; i++) {
+                sink += router.route(i & 0x3FFF).hashCode();
+            }
+            long elapsed = System.nanoTime() - begin;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            System.out.printf("%.1f ns/decision, %d bytes allocated (%d)%n",
+                    elapsed / (double) DECISIONS, allocated, sink & 1);
+        }
+        System.out.println(router.route(100) == card ? "100 -> card" : "100 -> other");
+        System.out.println(router.route(50_000) == wire ? "50000 -> wire" : "50000 -> other");
+        System.out.println(router.route(0) == card ? "0 -> default card" : "0 -> other");
+    }
+}
@@ -1,4 +1,6 @@
 
+import java.util.concurrent.CompletableFuture;
+
 // Context
 public class ShoppingCart {
     private PaymentStrategy paymentStrategy;
@@ -14,4 +16,12 @@ public class ShoppingCart {
             paymentStrategy.processPayment(totalAmount);
         }
     }
+
+    // Queues the payment on the pipeline instead of paying on the calling thread
+    public CompletableFuture<Void> checkoutAsync(int totalAmount, CheckoutPipeline pipeline) {
+        if (paymentStrategy == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No payment method selected!"));
+        }
+        return pipeline.submit(paymentStrategy, totalAmount);
+    }
 }
@@ -0,0 +1,80 @@
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local stand-in for a payment provider: replies after a random latency and
+// fails a configurable fraction of charges, so the pipeline can be exercised offline.
+// A simulated failure is an outage before the charge, so it is reported as NotChargedException.
+// A batch costs one round trip: all of its charges are answered after a single latency.
+public class SimulatedGateway implements PaymentGateway, AutoCloseable {
+    private final long minLatencyMicros;
+    private final long maxLatencyMicros;
+    private final double failureRate;
+    private final ScheduledExecutorService timer;
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    public SimulatedGateway(long minLatencyMicros, long maxLatencyMicros, double failureRate) {
+        if (minLatencyMicros < 0 || maxLatencyMicros < minLatencyMicros) {
+            throw new IllegalArgumentException("Invalid latency range");
+        }
+        if (failureRate < 0 || failureRate >= 1) {
+            throw new IllegalArgumentException("Failure rate must be in [0, 1)");
+        }
+        this.minLatencyMicros = minLatencyMicros;
+        this.maxLatencyMicros = maxLatencyMicros;
+        this.failureRate = failureRate;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "simulated-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> charge(String method, String account, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return chargeBatch(List.of(new Charge(method, account, amount))).get(0);
+    }
+
+    @Override
+    public List<CompletableFuture<Void>> chargeBatch(List<Charge> charges) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = minLatencyMicros + random.nextLong(maxLatencyMicros - minLatencyMicros + 1);
+        List<CompletableFuture<Void>> replies = new ArrayList<>(charges.size());
+        boolean[] failed = new boolean[charges.size()];
+        for (int i = 0; i < charges.size(); i++) {
+            replies.add(new CompletableFuture<>());
+            failed[i] = random.nextDouble() < failureRate;
+        }
+        roundTrips.incrementAndGet();
+        timer.schedule(() -> {
+            for (int i = 0; i < failed.length; i++) {
+                if (failed[i]) {
+                    replies.get(i).completeExceptionally(
+                            new NotChargedException(charges.get(i).method + " gateway unavailable"));
+                } else {
+                    replies.get(i).complete(null);
+                }
+            }
+        }, latency, TimeUnit.MICROSECONDS);
+        return replies;
+    }
+
+    // Number of requests sent, counting a batch once
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
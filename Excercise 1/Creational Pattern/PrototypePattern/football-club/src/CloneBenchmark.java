@@ -0,0 +1,46 @@
+// Compares copy-on-write clone() with an eager deep copy as the prototype's skill array grows
+public class CloneBenchmark {
+    private static final int CLONES = 200_000;
+
+    public static void main(String[] args) {
+        long sink = 0;
+        for (int skills : new int[] {10, 1_000, 10_000, 100_000}) {
+            FootballPlayer prototype = new FootballPlayer("Default Striker", "Striker", 9);
+            prototype.setContract(new Contract(1_000_000, 3));
+            for (int i = 0; i < skills; i++) {
+                prototype.setSkill(i, i % 100);
+            }
+            prototype.recordMatch(1, 0);
+
+            for (int round = 0; round < 2; round++) {
+                long begin = System.nanoTime();
+                for (int i = 0; i < CLONES; i++) {
+                    sink += ((FootballPlayer) prototype.clone()).getSkillCount();
+                }
+                long cowNanos = System.nanoTime() - begin;
+
+                int deepClones = Math.max(100, CLONES / Math.max(1, skills / 100));
+                begin = System.nanoTime();
+                for (int i = 0; i < deepClones; i++) {
+                    sink += prototype.deepClone().getSkillCount();
+                }
+                long deepNanos = System.nanoTime() - begin;
+
+                begin = System.nanoTime();
+                for (int i = 0; i < deepClones; i++) {
+                    FootballPlayer clone = (FootballPlayer) prototype.clone();
+                    clone.setSkill(0, 99);
+                    sink += clone.getSkill(0);
+                }
+                long writeNanos = System.nanoTime() - begin;
+
+                if (round == 1) {
+                    System.out.printf("%,7d skills: clone %6.1f ns | deep copy %10.1f ns | clone + first write %10.1f ns%n",
+                            skills, cowNanos / (double) CLONES, deepNanos / (double) deepClones,
+                            writeNanos / (double) deepClones);
+                }
+            }
+        }
+        System.out.println("(checksum " + (sink & 0xff) + ")");
+    }
+}
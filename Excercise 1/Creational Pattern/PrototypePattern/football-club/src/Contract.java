@@ -0,0 +1,21 @@
+// Immutable contract terms, so clones can always share the same instance
+public final class Contract {
+    private final long annualSalary;
+    private final int years;
+
+    public Contract(long annualSalary, int years) {
+        if (annualSalary < 0 || years <= 0) {
+            throw new IllegalArgumentException("Invalid contract terms");
+        }
+        this.annualSalary = annualSalary;
+        this.years = years;
+    }
+
+    public long getAnnualSalary() {
+        return annualSalary;
+    }
+
+    public int getYears() {
+        return years;
+    }
+}
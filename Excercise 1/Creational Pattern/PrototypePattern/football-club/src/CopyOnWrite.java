@@ -0,0 +1,62 @@
+import java.util.function.UnaryOperator;
+
+// Holder for nested player state that clones share until one of them writes.
+// share() hands the same value to a new holder and marks both sides as not owning it,
+// so the value is treated as immutable from then on. The first write() on either side
+// copies the value and keeps the copy for itself; reads never copy.
+public class CopyOnWrite<T> {
+    private final UnaryOperator<T> copier;
+    private T value;
+    private boolean owned;
+
+    public CopyOnWrite(T value, UnaryOperator<T> copier) {
+        this(value, copier, true);
+    }
+
+    private CopyOnWrite(T value, UnaryOperator<T> copier, boolean owned) {
+        this.value = value;
+        this.copier = copier;
+        this.owned = owned;
+    }
+
+    // The returned value must not be modified
+    public T read() {
+        return value;
+    }
+
+    // Returns a value this holder owns and may modify, copying the shared one on first use
+    public T write() {
+        if (!owned) {
+            value = copier.apply(value);
+            owned = true;
+        }
+        return value;
+    }
+
+    // Replaces the value with one the caller created and no one else references
+    public void set(T newValue) {
+        value = newValue;
+        owned = true;
+    }
+
+    public CopyOnWrite<T> share() {
+        // Avoid writing the flag on every clone so shared prototypes are only read
+        if (owned) {
+            owned = false;
+        }
+        return new CopyOnWrite<>(value, copier, false);
+    }
+
+    // Makes this holder share the other's value, as if it had just been cloned from it
+    public void shareFrom(CopyOnWrite<T> other) {
+        if (other.owned) {
+            other.owned = false;
+        }
+        value = other.value;
+        owned = false;
+    }
+
+    public boolean isShared() {
+        return !owned;
+    }
+}
@@ -1,17 +1,55 @@
+import java.util.Arrays;
+
+// Nested state (stats, skill ratings) is held in CopyOnWrite holders, so a clone shares it
+// with its prototype and only copies the part it changes. Cloning costs the same no matter
+// how large the prototype's nested state grows. The contract is immutable and always shared.
 public class FootballPlayer implements Player {
     private String name;
     private String position;
     private int jerseyNumber;
+    private Contract contract;
+    private final CopyOnWrite<PlayerStats> stats;
+    private final CopyOnWrite<int[]> skills;
 
     public FootballPlayer(String name, String position, int jerseyNumber) {
         this.name = name;
         this.position = position;
         this.jerseyNumber = jerseyNumber;
+        this.stats = new CopyOnWrite<>(new PlayerStats(), PlayerStats::new);
+        this.skills = new CopyOnWrite<>(new int[0], int[]::clone);
+    }
+
+    private FootballPlayer(FootballPlayer prototype) {
+        this.name = prototype.name;
+        this.position = prototype.position;
+        this.jerseyNumber = prototype.jerseyNumber;
+        this.contract = prototype.contract;
+        this.stats = prototype.stats.share();
+        this.skills = prototype.skills.share();
     }
 
     @Override
     public Player clone() {
-        return new FootballPlayer(this.name, this.position, this.jerseyNumber);
+        return new FootballPlayer(this);
+    }
+
+    // Eagerly copies all nested state, e.g. to hand a fully independent player to another thread
+    public FootballPlayer deepClone() {
+        FootballPlayer copy = new FootballPlayer(name, position, jerseyNumber);
+        copy.contract = contract;
+        copy.stats.set(new PlayerStats(stats.read()));
+        copy.skills.set(skills.read().clone());
+        return copy;
+    }
+
+    // Restores this instance to the prototype's state so PlayerRegistry can pool it again
+    void resetTo(FootballPlayer source) {
+        this.name = source.name;
+        this.position = source.position;
+        this.jerseyNumber = source.jerseyNumber;
+        this.contract = source.contract;
+        this.stats.shareFrom(source.stats);
+        this.skills.shareFrom(source.skills);
     }
 
     @Override
@@ -19,6 +57,42 @@ public class FootballPlayer implements Player {
         System.out.println("Player: " + name + ", Position: " + position + ", Jersey: " + jerseyNumber);
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    public int getJerseyNumber() {
+        return jerseyNumber;
+    }
+
+    public Contract getContract() {
+        return contract;
+    }
+
+    public int getAppearances() {
+        return stats.read().getAppearances();
+    }
+
+    public int getGoals() {
+        return stats.read().getGoals();
+    }
+
+    public int getAssists() {
+        return stats.read().getAssists();
+    }
+
+    public int getSkillCount() {
+        return skills.read().length;
+    }
+
+    public int getSkill(int index) {
+        return skills.read()[index];
+    }
+
     // Setters for customization after cloning
     public void setName(String name) {
         this.name = name;
@@ -27,4 +101,27 @@ public class FootballPlayer implements Player {
     public void setJerseyNumber(int jerseyNumber) {
         this.jerseyNumber = jerseyNumber;
     }
+
+    public void setContract(Contract contract) {
+        this.contract = contract;
+    }
+
+    public void recordMatch(int goalsScored, int assistsMade) {
+        stats.write().recordMatch(goalsScored, assistsMade);
+    }
+
+    // Sets a skill rating, growing the skill array when the index is past its end
+    public void setSkill(int index, int rating) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Skill index cannot be negative");
+        }
+        if (index >= skills.read().length) {
+            // Growing already makes a private copy, so there is nothing left to share
+            int[] grown = Arrays.copyOf(skills.read(), index + 1);
+            grown[index] = rating;
+            skills.set(grown);
+            return;
+        }
+        skills.write()[index] = rating;
+    }
 }
@@ -0,0 +1,156 @@
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps jersey numbers unique within each team.
+// Every team has a small BitSet of taken numbers, so checking a number is O(1) and
+// the lowest free one comes from nextClearBit. Each team is locked on its own, so
+// clones created for different teams never wait on each other.
+// Numbers handed out through assign also remember which player wears them, so
+// reassign only frees a number that really belongs to the player being moved.
+public class JerseyIndex {
+    public static final int MIN_JERSEY = 1;
+    public static final int MAX_JERSEY = 99;
+
+    private final Map<String, Team> teams = new ConcurrentHashMap<>();
+
+    private static final class Team {
+        final BitSet taken = new BitSet(MAX_JERSEY + 1);
+        final FootballPlayer[] wearers = new FootballPlayer[MAX_JERSEY + 1];
+    }
+
+    // Claims the number for the team; returns false if another player already wears it
+    public boolean claim(String team, int number) {
+        checkNumber(number);
+        Team t = teamFor(team);
+        synchronized (t) {
+            if (t.taken.get(number)) {
+                return false;
+            }
+            t.taken.set(number);
+            return true;
+        }
+    }
+
+    // Claims and returns the lowest free number for the team
+    public int claimNext(String team) {
+        Team t = teamFor(team);
+        synchronized (t) {
+            int number = t.taken.nextClearBit(MIN_JERSEY);
+            if (number > MAX_JERSEY) {
+                throw new IllegalStateException("No free jersey numbers left in team " + team);
+            }
+            t.taken.set(number);
+            return number;
+        }
+    }
+
+    public void release(String team, int number) {
+        checkNumber(number);
+        Team t = teams.get(team);
+        if (t != null) {
+            synchronized (t) {
+                t.taken.clear(number);
+                t.wearers[number] = null;
+            }
+        }
+    }
+
+    public boolean isTaken(String team, int number) {
+        checkNumber(number);
+        Team t = teams.get(team);
+        if (t == null) {
+            return false;
+        }
+        synchronized (t) {
+            return t.taken.get(number);
+        }
+    }
+
+    // Lowest free number without claiming it, or -1 if the team is full
+    public int nextFree(String team) {
+        Team t = teams.get(team);
+        if (t == null) {
+            return MIN_JERSEY;
+        }
+        synchronized (t) {
+            int number = t.taken.nextClearBit(MIN_JERSEY);
+            return number > MAX_JERSEY ? -1 : number;
+        }
+    }
+
+    public int countTaken(String team) {
+        Team t = teams.get(team);
+        if (t == null) {
+            return 0;
+        }
+        synchronized (t) {
+            return t.taken.cardinality();
+        }
+    }
+
+    // Gives a player joining the team the requested number; returns false if it is taken
+    public boolean assign(String team, FootballPlayer player, int number) {
+        checkNumber(number);
+        Team t = teamFor(team);
+        synchronized (t) {
+            if (t.taken.get(number)) {
+                return false;
+            }
+            t.taken.set(number);
+            t.wearers[number] = player;
+        }
+        player.setJerseyNumber(number);
+        return true;
+    }
+
+    // Gives a player joining the team the lowest free number and returns it
+    public int assignNext(String team, FootballPlayer player) {
+        Team t = teamFor(team);
+        int number;
+        synchronized (t) {
+            number = claimNext(team);
+            t.wearers[number] = player;
+        }
+        player.setJerseyNumber(number);
+        return number;
+    }
+
+    // Moves a player to a new number under the team lock. The old number is only freed
+    // if this index handed it to the same player; an unassigned, out-of-range or
+    // copied number is simply left alone.
+    public boolean reassign(String team, FootballPlayer player, int newNumber) {
+        checkNumber(newNumber);
+        int oldNumber = player.getJerseyNumber();
+        Team t = teamFor(team);
+        synchronized (t) {
+            if (t.wearers[newNumber] == player) {
+                return true;
+            }
+            if (t.taken.get(newNumber)) {
+                return false;
+            }
+            t.taken.set(newNumber);
+            t.wearers[newNumber] = player;
+            if (oldNumber >= MIN_JERSEY && oldNumber <= MAX_JERSEY && t.wearers[oldNumber] == player) {
+                t.taken.clear(oldNumber);
+                t.wearers[oldNumber] = null;
+            }
+            player.setJerseyNumber(newNumber);
+        }
+        return true;
+    }
+
+    private Team teamFor(String team) {
+        if (team == null || team.isEmpty()) {
+            throw new IllegalArgumentException("Team name cannot be empty");
+        }
+        return teams.computeIfAbsent(team, key -> new Team());
+    }
+
+    private static void checkNumber(int number) {
+        if (number < MIN_JERSEY || number > MAX_JERSEY) {
+            throw new IllegalArgumentException("Jersey number must be between " + MIN_JERSEY + " and " + MAX_JERSEY);
+        }
+    }
+}
@@ -4,6 +4,7 @@ public class Main {
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in);
         PlayerRegistry registry = new PlayerRegistry();
+        JerseyIndex jerseys = new JerseyIndex();
 
         // Create default prototypes
         registry.addPrototype("Striker", new FootballPlayer("Default Striker", "Striker", 9));
@@ -42,8 +43,17 @@ public class Main {
                 player.setName(sc.nextLine());
 
                 System.out.print("Enter jersey number: ");
-                player.setJerseyNumber(sc.nextInt());
+                int jersey = sc.nextInt();
                 sc.nextLine(); // Consume newline
+                if (jersey < JerseyIndex.MIN_JERSEY || jersey > JerseyIndex.MAX_JERSEY) {
+                    System.out.println("Jersey number must be between 1 and 99.");
+                    continue;
+                }
+                if (!jerseys.assign("Club", player, jersey)) {
+                    System.out.println("Jersey " + jersey + " is already taken. Next free number: "
+                            + jerseys.nextFree("Club"));
+                    continue;
+                }
 
                 System.out.println("\n--- Player Details ---");
                 player.showDetails();
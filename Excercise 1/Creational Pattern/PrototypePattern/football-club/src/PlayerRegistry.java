@@ -1,18 +1,121 @@
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
+// Prototype registry that keeps a pool of pre-cloned players per key.
+// getPrototype takes a ready clone from the pool and only clones on the spot when the
+// pool is empty. A background thread tops a pool back up once it runs low, and callers
+// can release players they are done with so the instances are reused.
 public class PlayerRegistry {
-    private Map<String, Player> playerMap = new HashMap<>();
+    private static final int DEFAULT_POOL_SIZE = 16;
+
+    private final Map<String, Pool> playerMap = new ConcurrentHashMap<>();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "player-pool-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     public void addPrototype(String key, Player player) {
-        playerMap.put(key, player);
+        addPrototype(key, player, DEFAULT_POOL_SIZE);
+    }
+
+    // The prototype must not be modified after it is registered
+    public void addPrototype(String key, Player player, int poolSize) {
+        if (key == null || player == null) {
+            throw new IllegalArgumentException("Key and prototype cannot be null");
+        }
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size cannot be negative");
+        }
+        Pool pool = new Pool(player, poolSize);
+        playerMap.put(key, pool);
+        pool.scheduleRefill();
     }
 
     public Player getPrototype(String key) {
-        Player prototype = playerMap.get(key);
-        if (prototype != null) {
-            return prototype.clone();
+        Pool pool = playerMap.get(key);
+        if (pool == null) {
+            return null;
+        }
+        Player player = pool.ready.poll();
+        if (player != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            player = pool.prototype.clone();
+        }
+        if (pool.ready.size() <= pool.capacity / 2) {
+            pool.scheduleRefill();
+        }
+        return player;
+    }
+
+    // Returns a player to its pool; it is reset to the prototype's state first.
+    // Only FootballPlayers can be reset in place; other players are dropped and the
+    // refill thread clones replacements. The player must not be used by the caller afterwards.
+    public void release(String key, Player player) {
+        Pool pool = playerMap.get(key);
+        if (pool == null || player == null) {
+            return;
+        }
+        if (player instanceof FootballPlayer && pool.prototype instanceof FootballPlayer) {
+            ((FootballPlayer) player).resetTo((FootballPlayer) pool.prototype);
+            pool.ready.offer(player);
+        } else if (pool.ready.size() <= pool.capacity / 2) {
+            pool.scheduleRefill();
+        }
+    }
+
+    public int getPooledCount(String key) {
+        Pool pool = playerMap.get(key);
+        return pool == null ? 0 : pool.ready.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    private class Pool {
+        final Player prototype;
+        final int capacity;
+        final BlockingQueue<Player> ready;
+        final AtomicBoolean refillScheduled = new AtomicBoolean();
+
+        Pool(Player prototype, int capacity) {
+            this.prototype = prototype;
+            this.capacity = capacity;
+            this.ready = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        void scheduleRefill() {
+            if (capacity == 0 || !refillScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            refiller.execute(() -> {
+                try {
+                    while (ready.remainingCapacity() > 0 && ready.offer(prototype.clone())) {
+                        // keep cloning until the pool is full
+                    }
+                } finally {
+                    refillScheduled.set(false);
+                }
+            });
         }
-        return null;
     }
 }
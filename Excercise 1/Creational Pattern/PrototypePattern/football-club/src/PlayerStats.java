@@ -0,0 +1,33 @@
+// Match statistics for a player; copied only when a clone first changes them
+public class PlayerStats {
+    private int appearances;
+    private int goals;
+    private int assists;
+
+    public PlayerStats() {
+    }
+
+    public PlayerStats(PlayerStats other) {
+        this.appearances = other.appearances;
+        this.goals = other.goals;
+        this.assists = other.assists;
+    }
+
+    public int getAppearances() {
+        return appearances;
+    }
+
+    public int getGoals() {
+        return goals;
+    }
+
+    public int getAssists() {
+        return assists;
+    }
+
+    void recordMatch(int goalsScored, int assistsMade) {
+        appearances++;
+        goals += goalsScored;
+        assists += assistsMade;
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+// Column-oriented store for large generated rosters.
+// Instead of one FootballPlayer object per row, the roster keeps an int array of jersey
+// numbers, a byte array of dictionary-encoded positions and an array of pooled name
+// Strings. Players are cloned from PlayerRegistry prototypes in parallel with fork/join,
+// copied into the columns and released back to the registry's pool.
+public class Roster {
+    private static final int GENERATE_THRESHOLD = 8192;
+    private static final int PARALLEL_SCAN_THRESHOLD = 1 << 16;
+
+    private final int[] jerseyNumbers;
+    private final byte[] positionCodes;
+    private final String[] names;
+    private final List<String> positions = new ArrayList<>();
+    private final Map<String, Byte> positionDictionary = new ConcurrentHashMap<>();
+    private final Map<String, String> namePool = new ConcurrentHashMap<>();
+
+    private Roster(int size) {
+        this.jerseyNumbers = new int[size];
+        this.positionCodes = new byte[size];
+        this.names = new String[size];
+    }
+
+    // Generates count players, cycling through the prototype keys. The customizer receives each
+    // clone and its row index, and may be called from several threads at once.
+    public static Roster generate(PlayerRegistry registry, String[] keys, int count,
+                                  ObjIntConsumer<FootballPlayer> customizer) {
+        if (keys == null || keys.length == 0) {
+            throw new IllegalArgumentException("At least one prototype key is required");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Player count cannot be negative");
+        }
+        for (String key : keys) {
+            Player sample = registry.getPrototype(key);
+            // Hand the clone straight back so the check does not drain the pool
+            registry.release(key, sample);
+            if (!(sample instanceof FootballPlayer)) {
+                throw new IllegalArgumentException("No FootballPlayer prototype for key: " + key);
+            }
+        }
+        Roster roster = new Roster(count);
+        ForkJoinPool.commonPool().invoke(roster.new Generate(registry, keys, customizer, 0, count));
+        return roster;
+    }
+
+    public int size() {
+        return jerseyNumbers.length;
+    }
+
+    public String getName(int row) {
+        return names[row];
+    }
+
+    public String getPosition(int row) {
+        synchronized (positions) {
+            return positions.get(positionCodes[row]);
+        }
+    }
+
+    public int getJerseyNumber(int row) {
+        return jerseyNumbers[row];
+    }
+
+    // Builds a standalone player object for one row
+    public FootballPlayer toPlayer(int row) {
+        return new FootballPlayer(getName(row), getPosition(row), getJerseyNumber(row));
+    }
+
+    // Rows with the given position and a jersey number in [minJersey, maxJersey)
+    public int[] select(String position, int minJersey, int maxJersey) {
+        Byte code = positionDictionary.get(position);
+        if (code == null) {
+            return new int[0];
+        }
+        byte wanted = code;
+        IntStream rows = IntStream.range(0, size());
+        if (size() >= PARALLEL_SCAN_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        return rows.filter(row -> positionCodes[row] == wanted
+                        && jerseyNumbers[row] >= minJersey && jerseyNumbers[row] < maxJersey)
+                   .toArray();
+    }
+
+    public int count(String position, int minJersey, int maxJersey) {
+        Byte code = positionDictionary.get(position);
+        if (code == null) {
+            return 0;
+        }
+        byte wanted = code;
+        int matches = 0;
+        for (int row = 0; row < jerseyNumbers.length; row++) {
+            // Non-short-circuit & keeps the loop branch-free
+            matches += (positionCodes[row] == wanted) & (jerseyNumbers[row] >= minJersey)
+                    & (jerseyNumbers[row] < maxJersey) ? 1 : 0;
+        }
+        return matches;
+    }
+
+    private void store(int row, FootballPlayer player) {
+        String name = player.getName();
+        String pooled = namePool.putIfAbsent(name, name);
+        names[row] = pooled != null ? pooled : name;
+        positionCodes[row] = encodePosition(player.getPosition());
+        jerseyNumbers[row] = player.getJerseyNumber();
+    }
+
+    private byte encodePosition(String position) {
+        Byte code = positionDictionary.get(position);
+        if (code != null) {
+            return code;
+        }
+        return positionDictionary.computeIfAbsent(position, key -> {
+            synchronized (positions) {
+                if (positions.size() > Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct positions");
+                }
+                positions.add(key);
+                return (byte) (positions.size() - 1);
+            }
+        });
+    }
+
+    private class Generate extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PlayerRegistry registry;
+        private final String[] keys;
+        private final ObjIntConsumer<FootballPlayer> customizer;
+        private final int from;
+        private final int to;
+
+        Generate(PlayerRegistry registry, String[] keys, ObjIntConsumer<FootballPlayer> customizer, int from, int to) {
+            this.registry = registry;
+            this.keys = keys;
+            this.customizer = customizer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GENERATE_THRESHOLD) {
+                for (int row = from; row < to; row++) {
+                    String key = keys[row % keys.length];
+                    FootballPlayer player = (FootballPlayer) registry.getPrototype(key);
+                    try {
+                        customizer.accept(player, row);
+                        store(row, player);
+                    } finally {
+                        registry.release(key, player);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Generate(registry, keys, customizer, from, mid),
+                      new Generate(registry, keys, customizer, mid, to));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Generates a large league roster in parallel and times a few column filters
+public class RosterBenchmark {
+    private static final int PLAYERS = 2_000_000;
+
+    public static void main(String[] args) {
+        PlayerRegistry registry = new PlayerRegistry();
+        registry.addPrototype("Striker", new FootballPlayer("Default Striker", "Striker", 9), 256);
+        registry.addPrototype("Goalkeeper", new FootballPlayer("Default Keeper", "Goalkeeper", 1), 256);
+        String[] keys = {"Striker", "Striker", "Striker", "Goalkeeper"};
+
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            Roster roster = Roster.generate(registry, keys, PLAYERS, (player, row) -> {
+                player.setName("Player " + (row % 50_000));
+                player.setJerseyNumber(1 + row % 99);
+            });
+            long generated = System.nanoTime();
+            int strikers = roster.count("Striker", 0, 10);
+            long counted = System.nanoTime();
+            int[] keepers = roster.select("Goalkeeper", 1, 2);
+            long selected = System.nanoTime();
+
+            System.out.printf("generate %,d: %d ms | count Strikers < 10: %,d in %.1f ms | select keepers #1: %,d in %.1f ms%n",
+                    roster.size(), (generated - begin) / 1_000_000,
+                    strikers, (counted - generated) / 1e6, keepers.length, (selected - counted) / 1e6);
+        }
+        System.out.println("pool hits=" + registry.getHits() + " misses=" + registry.getMisses());
+        registry.shutdown();
+    }
+}
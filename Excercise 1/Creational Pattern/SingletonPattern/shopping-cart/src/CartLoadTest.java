@@ -0,0 +1,56 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Drives CartService from 1..N threads and reports throughput for each thread count
+public class CartLoadTest {
+    private static final int SESSIONS = 10_000;
+    private static final int OPS_PER_THREAD = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        CartService service = CartService.getInstance();
+        Product product = new Product("Widget", 9.99);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Cores: " + cores);
+        double baseline = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            double opsPerSecond = run(service, product, threads);
+            if (threads == 1) {
+                baseline = opsPerSecond;
+            }
+            System.out.printf("%2d threads: %,14.0f ops/s (x%.2f)%n", threads, opsPerSecond, opsPerSecond / baseline);
+            for (int s = 0; s < SESSIONS; s++) {
+                service.endSession("session-" + s);
+            }
+        }
+    }
+
+    private static double run(CartService service, Product product, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        String session = "session-" + random.nextInt(SESSIONS);
+                        if (i % 10 == 0) {
+                            service.getCart(session).getTotalCents();
+                        } else {
+                            service.addProduct(session, product);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return (long) threads * OPS_PER_THREAD / ((System.nanoTime() - begin) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Singleton service that keeps one ShoppingCart per session.
+// Sessions live in a ConcurrentHashMap, so looking up different sessions never
+// blocks, and each cart has its own lock, so users only contend on their own cart.
+// Carts that have not been touched for the idle timeout are evicted in the background.
+public class CartService {
+    private static final long DEFAULT_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private volatile long idleTimeoutMillis = DEFAULT_IDLE_MILLIS;
+    private ScheduledExecutorService evictor;
+
+    private CartService() {
+    }
+
+    private static class Holder {
+        private static final CartService INSTANCE = new CartService();
+    }
+
+    public static CartService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Returns the session's cart, creating it on first use
+    public ShoppingCart getCart(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            throw new IllegalArgumentException("Session id cannot be empty");
+        }
+        long now = System.currentTimeMillis();
+        // The touch happens under the map's per-key lock, so the evictor either removes the
+        // session before this call (and a new one is created) or sees the fresh timestamp
+        Session session = sessions.compute(sessionId, (id, existing) -> {
+            Session touched = existing != null ? existing : new Session();
+            touched.lastAccess = now;
+            return touched;
+        });
+        return session.cart;
+    }
+
+    public void addProduct(String sessionId, Product product) {
+        getCart(sessionId).add(product);
+    }
+
+    public void endSession(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // Removes carts idle for longer than the timeout; returns how many were evicted
+    public int evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        int[] evicted = {0};
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session candidate = entry.getValue();
+            if (candidate.lastAccess >= cutoff) {
+                continue;
+            }
+            // Remove only the same session, and only if it is still stale under the per-key
+            // lock getCart touches it with, so a session touched concurrently is kept
+            sessions.computeIfPresent(entry.getKey(), (id, session) -> {
+                if (session == candidate && session.lastAccess < cutoff) {
+                    evicted[0]++;
+                    return null;
+                }
+                return session;
+            });
+        }
+        return evicted[0];
+    }
+
+    // Starts evicting idle carts in the background at a quarter of the timeout
+    public synchronized void startEviction(long idleTimeout, TimeUnit unit) {
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        stopEviction();
+        idleTimeoutMillis = unit.toMillis(idleTimeout);
+        long period = Math.max(1, idleTimeoutMillis / 4);
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopEviction() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+    }
+
+    private static class Session {
+        private final ShoppingCart cart = new ShoppingCart();
+        private volatile long lastAccess;
+    }
+}
@@ -1,10 +1,32 @@
+import java.util.Objects;
+
 public class Product {
+    // Id of products created outside the catalog
+    public static final int NO_ID = -1;
+
+    private int id;
     private String name;
     private double price;
+    private long priceCents;
 
     public Product(String name, double price) {
+        this.id = NO_ID;
         this.name = name;
         this.price = price;
+        this.priceCents = Math.round(price * 100);
+    }
+
+    // Catalog product: cart lines and equality go by the SKU id
+    public Product(int id, String name, double price) {
+        this(name, price);
+        if (id < 0) {
+            throw new IllegalArgumentException("Product id cannot be negative");
+        }
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
     }
 
     public String getName() {
@@ -15,6 +37,29 @@ public class Product {
         return price;
     }
 
+    // Exact price in cents, used for cart totals
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    // Catalog products are the same product when their ids match. Other products with
+    // the same name and price are merged into one cart line.
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Product)) return false;
+        Product other = (Product) obj;
+        if (id != NO_ID || other.id != NO_ID) {
+            return id == other.id;
+        }
+        return priceCents == other.priceCents && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != NO_ID ? Integer.hashCode(id) : Objects.hash(name, priceCents);
+    }
+
     @Override
     public String toString() {
         return name + " ($" + price + ")";
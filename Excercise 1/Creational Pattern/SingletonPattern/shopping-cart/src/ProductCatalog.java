@@ -0,0 +1,235 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Singleton catalog of products keyed by an int id.
+// Rows are stored column by column in direct (off-heap) buffers: price in cents,
+// and name as UTF-8 bytes in a shared pool addressed by offset and length. Only an
+// open-addressing id -> row table lives on the heap, so millions of SKUs take a few
+// bytes of heap each. Carts hold only ids; Product objects are built on demand and
+// not cached, and compare equal by id.
+public class ProductCatalog {
+    private static final int NO_ROW = -1;
+
+    private ByteBuffer prices = ByteBuffer.allocateDirect(1024 * Long.BYTES);
+    private ByteBuffer nameOffsets = ByteBuffer.allocateDirect(1024 * Integer.BYTES);
+    private ByteBuffer nameLengths = ByteBuffer.allocateDirect(1024 * Integer.BYTES);
+    private ByteBuffer names = ByteBuffer.allocateDirect(16 * 1024);
+    private int rows;
+
+    private int[] tableIds = new int[2048];
+    private int[] tableRows = new int[2048];
+
+    // Package-private for tools and tests that need a separate catalog
+    ProductCatalog() {
+        Arrays.fill(tableRows, NO_ROW);
+    }
+
+    private static class Holder {
+        private static final ProductCatalog INSTANCE = new ProductCatalog();
+    }
+
+    public static ProductCatalog getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Adds or replaces a product. A replaced name stays in the pool until the catalog is rebuilt.
+    public synchronized void put(int id, String name, long priceCents) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Product id cannot be negative");
+        }
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Product name cannot be empty");
+        }
+        if (priceCents < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        int row = findRow(id);
+        if (row == NO_ROW) {
+            row = rows++;
+            ensureRowCapacity(rows);
+            insertRow(id, row);
+        }
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ensureNameCapacity(names.position() + nameBytes.length);
+        nameOffsets.putInt(row * Integer.BYTES, names.position());
+        nameLengths.putInt(row * Integer.BYTES, nameBytes.length);
+        names.put(nameBytes);
+        prices.putLong(row * Long.BYTES, priceCents);
+    }
+
+    public synchronized boolean contains(int id) {
+        return findRow(id) != NO_ROW;
+    }
+
+    public synchronized long getPriceCents(int id) {
+        return prices.getLong(requireRow(id) * Long.BYTES);
+    }
+
+    public synchronized String getName(int id) {
+        int row = requireRow(id);
+        byte[] bytes = new byte[nameLengths.getInt(row * Integer.BYTES)];
+        ByteBuffer view = names.duplicate();
+        view.position(nameOffsets.getInt(row * Integer.BYTES));
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Builds a Product from one consistent read of the row, so it never mixes a name
+    // and price from before and after a concurrent put
+    public synchronized Product getProduct(int id) {
+        return new Product(id, getName(id), getPriceCents(id) / 100.0);
+    }
+
+    public synchronized int size() {
+        return rows;
+    }
+
+    // Loads "id,name,price" lines; a header line starting with "id" is skipped.
+    // Names may be quoted to contain commas. Returns the number of products loaded.
+    public int loadCsv(Path file) throws IOException {
+        int loaded = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || (lineNumber == 1 && line.regionMatches(true, 0, "id", 0, 2))) {
+                    continue;
+                }
+                List<String> fields = splitCsv(line);
+                if (fields.size() != 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected id,name,price");
+                }
+                try {
+                    int id = Integer.parseInt(fields.get(0).trim());
+                    long cents = new BigDecimal(fields.get(2).trim())
+                            .movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+                    put(id, fields.get(1), cents);
+                } catch (NumberFormatException | ArithmeticException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+                }
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        int i = 0;
+        while (true) {
+            StringBuilder field = new StringBuilder();
+            if (i < line.length() && line.charAt(i) == '"') {
+                // Quoted field: "" is an escaped quote
+                i++;
+                while (i < line.length()) {
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            int comma = line.indexOf(',', i);
+            int end = comma < 0 ? line.length() : comma;
+            field.append(line, i, end);
+            fields.add(field.toString());
+            if (comma < 0) {
+                return fields;
+            }
+            i = comma + 1;
+        }
+    }
+
+    private int requireRow(int id) {
+        int row = findRow(id);
+        if (row == NO_ROW) {
+            throw new IllegalArgumentException("Unknown product id: " + id);
+        }
+        return row;
+    }
+
+    private int findRow(int id) {
+        int mask = tableIds.length - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            if (tableRows[slot] == NO_ROW) {
+                return NO_ROW;
+            }
+            if (tableIds[slot] == id) {
+                return tableRows[slot];
+            }
+        }
+    }
+
+    private void insertRow(int id, int row) {
+        // Keep the table at most half full
+        if (rows * 2 > tableIds.length) {
+            int[] oldIds = tableIds;
+            int[] oldRows = tableRows;
+            tableIds = new int[oldIds.length * 2];
+            tableRows = new int[oldIds.length * 2];
+            Arrays.fill(tableRows, NO_ROW);
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldRows[i] != NO_ROW) {
+                    place(oldIds[i], oldRows[i]);
+                }
+            }
+        }
+        place(id, row);
+    }
+
+    private void place(int id, int row) {
+        int mask = tableIds.length - 1;
+        int slot = mix(id) & mask;
+        while (tableRows[slot] != NO_ROW) {
+            slot = (slot + 1) & mask;
+        }
+        tableIds[slot] = id;
+        tableRows[slot] = row;
+    }
+
+    // Shared with ShoppingCart's id -> line table
+    static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void ensureRowCapacity(int neededRows) {
+        if (neededRows * Long.BYTES > prices.capacity()) {
+            int newRows = Math.max(neededRows, prices.capacity() / Long.BYTES * 2);
+            prices = grow(prices, newRows * Long.BYTES);
+            nameOffsets = grow(nameOffsets, newRows * Integer.BYTES);
+            nameLengths = grow(nameLengths, newRows * Integer.BYTES);
+        }
+    }
+
+    private void ensureNameCapacity(int neededBytes) {
+        if (neededBytes > names.capacity()) {
+            int position = names.position();
+            names = grow(names, Math.max(neededBytes, names.capacity() * 2));
+            names.position(position);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer bigger = ByteBuffer.allocateDirect(capacity);
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        bigger.put(source);
+        bigger.clear();
+        return bigger;
+    }
+}
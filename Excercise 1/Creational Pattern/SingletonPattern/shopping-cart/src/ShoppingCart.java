@@ -1,34 +1,223 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class ShoppingCart {
-    private static ShoppingCart instance;
-    private List<Product> items;
+    private static final int[] NO_INTS = new int[0];
+    private static final long[] NO_LONGS = new long[0];
 
-    private ShoppingCart() {
-        items = new ArrayList<>();
+    // One line per distinct product created outside the catalog, in the order first added
+    private final Map<Product, Long> lines;
+    // Catalog lines keyed by SKU id: parallel arrays in the order first added, with an
+    // open-addressing id -> line table (line + 1, 0 = empty) like the catalog's own index.
+    // A line keeps the price it was first added at.
+    private int[] skuIds = NO_INTS;
+    private long[] skuQuantities = NO_LONGS;
+    private long[] skuPrices = NO_LONGS;
+    private int skuLineCount;
+    private int[] skuIndex = NO_INTS;
+    private long totalCents;
+    private long itemCount;
+
+    // Package-private so CartService can create one cart per session
+    ShoppingCart() {
+        lines = new LinkedHashMap<>();
+    }
+
+    // Holder idiom: the instance is created on first use, safely and without locking
+    private static class Holder {
+        private static final ShoppingCart INSTANCE = new ShoppingCart();
     }
 
     public static ShoppingCart getInstance() {
-        if (instance == null) {
-            instance = new ShoppingCart();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public void addProduct(Product product) {
-        items.add(product);
+        add(product, 1);
         System.out.println(product.getName() + " added to cart.");
     }
 
-    public void showCart() {
+    // Same as addProduct without the console message
+    public void add(Product product) {
+        add(product, 1);
+    }
+
+    // Each cart guards its own lines, so different carts never contend
+    public synchronized void add(Product product, long quantity) {
+        if (product.getId() != Product.NO_ID) {
+            addSku(product.getId(), product.getPriceCents(), quantity);
+            return;
+        }
+        checkQuantity(quantity);
+        totalCents = Math.addExact(totalCents, Math.multiplyExact(product.getPriceCents(), quantity));
+        lines.merge(product, quantity, Long::sum);
+        itemCount += quantity;
+    }
+
+    // Adds a catalog product by id; the cart stores only the id, quantity and price
+    public void add(int productId, long quantity) {
+        addSku(productId, ProductCatalog.getInstance().getPriceCents(productId), quantity);
+    }
+
+    // Removes one unit of the product; returns false if it was not in the cart
+    public synchronized boolean removeProduct(Product product) {
+        if (product.getId() != Product.NO_ID) {
+            return removeProduct(product.getId());
+        }
+        Long quantity = lines.get(product);
+        if (quantity == null) {
+            return false;
+        }
+        if (quantity == 1) {
+            lines.remove(product);
+        } else {
+            lines.put(product, quantity - 1);
+        }
+        totalCents -= product.getPriceCents();
+        itemCount--;
+        return true;
+    }
+
+    // Removes one unit of a catalog product; returns false if it was not in the cart
+    public synchronized boolean removeProduct(int productId) {
+        int line = findSkuLine(productId);
+        if (line < 0) {
+            return false;
+        }
+        totalCents -= skuPrices[line];
+        itemCount--;
+        if (--skuQuantities[line] == 0) {
+            removeSkuLine(line);
+        }
+        return true;
+    }
+
+    public synchronized long getQuantity(int productId) {
+        int line = findSkuLine(productId);
+        return line < 0 ? 0 : skuQuantities[line];
+    }
+
+    public synchronized long getTotalCents() {
+        return totalCents;
+    }
+
+    public synchronized long getItemCount() {
+        return itemCount;
+    }
+
+    // Snapshot of product -> quantity; catalog lines follow the other lines
+    public synchronized Map<Product, Long> getLines() {
+        Map<Product, Long> snapshot = new LinkedHashMap<>(lines);
+        ProductCatalog catalog = ProductCatalog.getInstance();
+        for (int line = 0; line < skuLineCount; line++) {
+            Product product = new Product(skuIds[line], catalog.getName(skuIds[line]), skuPrices[line] / 100.0);
+            snapshot.put(product, skuQuantities[line]);
+        }
+        return snapshot;
+    }
+
+    public synchronized void showCart() {
         System.out.println("\n🛒 Your Cart:");
-        if (items.isEmpty()) {
+        if (itemCount == 0) {
             System.out.println("Cart is empty.");
         } else {
-            for (Product item : items) {
-                System.out.println("- " + item);
+            for (Map.Entry<Product, Long> line : getLines().entrySet()) {
+                System.out.println("- " + line.getKey() + " x" + line.getValue());
+            }
+            System.out.println("Total: $" + formatCents(totalCents) + " (" + itemCount + " items)");
+        }
+    }
+
+    static String formatCents(long cents) {
+        String sign = cents < 0 ? "-" : "";
+        long abs = Math.abs(cents);
+        return sign + (abs / 100) + "." + String.format("%02d", abs % 100);
+    }
+
+    private synchronized void addSku(int productId, long priceCents, long quantity) {
+        checkQuantity(quantity);
+        int line = findSkuLine(productId);
+        long unitCents = line < 0 ? priceCents : skuPrices[line];
+        // Check for overflow before changing anything
+        long newTotal = Math.addExact(totalCents, Math.multiplyExact(unitCents, quantity));
+        if (line < 0) {
+            line = appendSkuLine(productId, priceCents);
+        }
+        skuQuantities[line] += quantity;
+        totalCents = newTotal;
+        itemCount += quantity;
+    }
+
+    private static void checkQuantity(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+    }
+
+    private int findSkuLine(int productId) {
+        if (skuIndex.length == 0) {
+            return -1;
+        }
+        int mask = skuIndex.length - 1;
+        for (int slot = ProductCatalog.mix(productId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = skuIndex[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (skuIds[entry - 1] == productId) {
+                return entry - 1;
             }
         }
     }
+
+    private int appendSkuLine(int productId, long priceCents) {
+        if (skuLineCount == skuIds.length) {
+            int capacity = Math.max(8, skuIds.length * 2);
+            skuIds = Arrays.copyOf(skuIds, capacity);
+            skuQuantities = Arrays.copyOf(skuQuantities, capacity);
+            skuPrices = Arrays.copyOf(skuPrices, capacity);
+        }
+        int line = skuLineCount++;
+        skuIds[line] = productId;
+        skuPrices[line] = priceCents;
+        skuQuantities[line] = 0;
+        // Keep the table at most half full
+        if (skuLineCount * 2 > skuIndex.length) {
+            rebuildIndex();
+        } else {
+            indexLine(line);
+        }
+        return line;
+    }
+
+    // Shifts later lines down to keep the order, then reindexes
+    private void removeSkuLine(int line) {
+        int tail = skuLineCount - line - 1;
+        System.arraycopy(skuIds, line + 1, skuIds, line, tail);
+        System.arraycopy(skuQuantities, line + 1, skuQuantities, line, tail);
+        System.arraycopy(skuPrices, line + 1, skuPrices, line, tail);
+        skuLineCount--;
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        int size = 16;
+        while (size < skuLineCount * 2) {
+            size <<= 1;
+        }
+        skuIndex = new int[size];
+        for (int line = 0; line < skuLineCount; line++) {
+            indexLine(line);
+        }
+    }
+
+    private void indexLine(int line) {
+        int mask = skuIndex.length - 1;
+        int slot = ProductCatalog.mix(skuIds[line]) & mask;
+        while (skuIndex[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        skuIndex[slot] = line + 1;
+    }
 }
@@ -1,27 +1,45 @@
 
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 // Client
 public class CompanyApp {
-    public static void main(String[] args) {
-        Staff p1 = new Programmer(100, "John", "Senior Developer");
-        Staff p2 = new Programmer(101, "Jane", "Junior Developer");
+    public static void main(String[] args) throws IOException {
+        Staff p1 = new Programmer(100, "John", "Senior Developer", 120000);
+        Staff p2 = new Programmer(101, "Jane", "Junior Developer", 80000);
 
-        Staff lead1 = new TeamLead(200, "Alice", "Project Manager");
-        Staff lead2 = new TeamLead(201, "Bob", "Product Manager");
+        Staff lead1 = new TeamLead(200, "Alice", "Project Manager", 150000);
+        Staff lead2 = new TeamLead(201, "Bob", "Product Manager", 140000);
 
-        Department devDept = new Department();
+        Department devDept = new Department("Development");
         devDept.addStaff(p1);
         devDept.addStaff(p2);
 
-        Department mgmtDept = new Department();
+        Department mgmtDept = new Department("Management");
         mgmtDept.addStaff(lead1);
         mgmtDept.addStaff(lead2);
 
-        Department company = new Department();
+        Department company = new Department("Company");
         company.addStaff(devDept);
         company.addStaff(mgmtDept);
 
+        // Stream the chart instead of printing node by node; the writer is flushed, not closed
+        Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
         System.out.println("=== Company Structure ===");
-        company.displayInfo();
+        new OrgChartRenderer(OrgChartRenderer.Format.TEXT).render(company, out);
+
+        System.out.println("\n=== Org Chart (JSON, depth 1) ===");
+        new OrgChartRenderer(OrgChartRenderer.Format.JSON, 1, 0, Long.MAX_VALUE).render(company, out);
+
+        System.out.println("\n=== Org Chart (CSV, rows 2-4) ===");
+        new OrgChartRenderer(OrgChartRenderer.Format.CSV, OrgChartRenderer.UNLIMITED_DEPTH, 1, 3).render(company, out);
+
+        System.out.println("\n=== Company Totals ===");
+        System.out.println("Programmers: " + company.getHeadcount(EmployeeType.PROGRAMMER));
+        System.out.println("Team Leads: " + company.getHeadcount(EmployeeType.TEAM_LEAD));
+        System.out.println("Payroll: " + company.getPayroll());
     }
 }
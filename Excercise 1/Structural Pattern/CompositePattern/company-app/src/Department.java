@@ -1,23 +1,332 @@
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 // Composite
-public class Department implements Staff {
+// Headcounts and payroll for the whole subtree are cached in each department and kept
+// up to date on addStaff/removeStaff by applying the change to every ancestor through the
+// parent pointers. Adding or removing costs O(depth) and every aggregate query is O(1).
+// The top-level department also keeps a company-wide StaffDirectory (id and role indexes).
+// Every member knows its slot in its parent's list, so removal just clears that slot; the
+// list is compacted lazily before it is next read.
+public class Department extends StaffNode {
+    private static final EmployeeType[] TYPES = EmployeeType.values();
+
+    private final String name;
     private final List<Staff> staffMembers = new ArrayList<>();
+    private int holes;
+    private final int[] headcounts = new int[TYPES.length];
+    private long payroll;
+    private StaffDirectory directory;
+
+    public Department() {
+        this("Department");
+    }
+
+    public Department(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Department name cannot be empty");
+        }
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
 
     @Override
     public void displayInfo() {
-        for (Staff s : staffMembers) {
+        for (Staff s : members()) {
             s.displayInfo();
         }
     }
 
+    // Walks the subtree with an explicit stack, so very deep hierarchies cannot overflow the call stack
+    @Override
+    public <R> R accept(StaffVisitor<R> visitor) {
+        R result = visitor.identity();
+        Deque<Iterator<Staff>> stack = new ArrayDeque<>();
+        stack.push(members().iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Staff> members = stack.peek();
+            if (!members.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Staff s = members.next();
+            if (s instanceof Department) {
+                stack.push(((Department) s).members().iterator());
+            } else {
+                result = visitor.combine(result, s.accept(visitor));
+            }
+        }
+        return result;
+    }
+
     public void addStaff(Staff s) {
-        staffMembers.add(s);
+        StaffNode node = checkAttachable(s);
+        checkPayrollFits(node, null);
+        Department root = getRoot();
+        StaffDirectory into = root.directory();
+        List<Employee> incoming;
+        if (node instanceof Employee) {
+            incoming = Collections.singletonList((Employee) node);
+        } else {
+            // Merge the smaller index into the larger, so building a tree bottom-up stays cheap
+            StaffDirectory other = ((Department) node).directory();
+            if (other.size() > into.size()) {
+                incoming = into.all();
+                into = other;
+            } else {
+                incoming = other.all();
+            }
+        }
+        into.checkCanAdd(incoming);
+        for (Employee e : incoming) {
+            into.add(e);
+        }
+        root.directory = into;
+        if (node instanceof Department) {
+            ((Department) node).directory = null;
+        }
+        append(node);
     }
 
     public void removeStaff(Staff s) {
-        staffMembers.remove(s);
+        if (s == null || s.getParent() != this) {
+            return;
+        }
+        StaffNode node = (StaffNode) s;
+        StaffDirectory rootDirectory = getRoot().directory();
+        unlink(node);
+        if (node instanceof Employee) {
+            rootDirectory.remove((Employee) node);
+        } else {
+            // The removed department becomes a company of its own and takes its index along
+            Department department = (Department) node;
+            StaffDirectory own = new StaffDirectory();
+            for (Employee e : department.collectEmployees()) {
+                rootDirectory.remove(e);
+                own.add(e);
+            }
+            department.directory = own;
+        }
+    }
+
+    // Moves a member of this department, with its whole subtree, under the target department.
+    // Within one company the indexes are untouched, so only the cached totals on the old
+    // and new ancestor paths are updated (O(depth)).
+    public void moveStaff(Staff s, Department target) {
+        if (s == null || s.getParent() != this) {
+            throw new IllegalArgumentException("Staff is not a member of this department");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Target department cannot be null");
+        }
+        if (target == this) {
+            return;
+        }
+        StaffNode node = (StaffNode) s;
+        if (node instanceof Department) {
+            checkNoCycle(target, (Department) node);
+        }
+        if (getRoot() != target.getRoot()) {
+            // Check the other company's index first, so a duplicate id leaves the node where it was
+            List<Employee> moving = node instanceof Employee
+                    ? Collections.singletonList((Employee) node)
+                    : ((Department) node).collectEmployees();
+            target.getRoot().directory().checkCanAdd(moving);
+            target.checkPayrollFits(node, null);
+            removeStaff(node);
+            target.addStaff(node);
+            return;
+        }
+        target.checkPayrollFits(node, this);
+        unlink(node);
+        target.append(node);
+    }
+
+    // Read-only snapshot of the current members; later adds and removes do not show up in it
+    public List<Staff> getStaffMembers() {
+        return Collections.unmodifiableList(new ArrayList<>(members()));
+    }
+
+    // Employee with the given id in this subtree, or null; O(1) lookup plus an O(depth) check
+    public Employee findById(long id) {
+        Employee e = getRoot().directory().get(id);
+        return e != null && contains(e) ? e : null;
+    }
+
+    public List<Employee> findByRole(String role) {
+        Department root = getRoot();
+        List<Employee> result = new ArrayList<>();
+        for (Employee e : root.directory().withRole(role)) {
+            if (root == this || contains(e)) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    // True if the node is somewhere below this department
+    public boolean contains(Staff s) {
+        for (Department d = s.getParent(); d != null; d = d.getParent()) {
+            if (d == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Department getRoot() {
+        Department d = this;
+        while (d.getParent() != null) {
+            d = d.getParent();
+        }
+        return d;
+    }
+
+    // Departments from the top-level department down to the node's own department
+    public static List<Department> pathToRoot(Staff s) {
+        List<Department> path = new ArrayList<>();
+        for (Department d = s.getParent(); d != null; d = d.getParent()) {
+            path.add(d);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    @Override
+    public int getHeadcount() {
+        int total = 0;
+        for (int count : headcounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public int getHeadcount(EmployeeType type) {
+        return headcounts[type.ordinal()];
+    }
+
+    @Override
+    public long getPayroll() {
+        return payroll;
+    }
+
+    private StaffNode checkAttachable(Staff s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Staff cannot be null");
+        }
+        if (!(s instanceof StaffNode)) {
+            throw new IllegalArgumentException("Unsupported staff type: " + s.getClass().getName());
+        }
+        if (s.getParent() != null) {
+            throw new IllegalStateException("Staff already belongs to another department");
+        }
+        if (s instanceof Department) {
+            checkNoCycle(this, (Department) s);
+        }
+        return (StaffNode) s;
+    }
+
+    private static void checkNoCycle(Department target, Department moved) {
+        for (Department d = target; d != null; d = d.getParent()) {
+            if (d == moved) {
+                throw new IllegalArgumentException("A department cannot contain itself");
+            }
+        }
+    }
+
+    private void append(StaffNode node) {
+        node.attach(this, staffMembers.size());
+        staffMembers.add(node);
+        propagate(node, 1);
+    }
+
+    private void unlink(StaffNode node) {
+        staffMembers.set(node.getSlot(), null);
+        holes++;
+        propagate(node, -1);
+        node.detach();
+        if (holes > staffMembers.size() / 2) {
+            members();
+        }
+    }
+
+    // Member list without holes; compacts in place, keeping order, if anything was removed
+    List<Staff> members() {
+        if (holes > 0) {
+            int write = 0;
+            for (int read = 0; read < staffMembers.size(); read++) {
+                Staff s = staffMembers.get(read);
+                if (s != null) {
+                    ((StaffNode) s).setSlot(write);
+                    staffMembers.set(write++, s);
+                }
+            }
+            staffMembers.subList(write, staffMembers.size()).clear();
+            holes = 0;
+        }
+        return staffMembers;
+    }
+
+    private StaffDirectory directory() {
+        if (directory == null) {
+            directory = new StaffDirectory();
+        }
+        return directory;
+    }
+
+    private List<Employee> collectEmployees() {
+        List<Employee> employees = new ArrayList<>(getHeadcount());
+        Deque<Department> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            for (Staff s : pending.pop().members()) {
+                if (s instanceof Department) {
+                    pending.push((Department) s);
+                } else {
+                    employees.add((Employee) s);
+                }
+            }
+        }
+        return employees;
+    }
+
+    // Throws if adding the subtree's payroll would overflow a total on the path up to the root.
+    // Departments that also contain the node's current department already count it, and so
+    // does everything above them, so the check stops at the first one of those.
+    private void checkPayrollFits(Staff s, Department from) {
+        Set<Department> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Department d = from; d != null; d = d.getParent()) {
+            unchanged.add(d);
+        }
+        long payrollDelta = s.getPayroll();
+        for (Department d = this; d != null && !unchanged.contains(d); d = d.getParent()) {
+            Math.addExact(d.payroll, payrollDelta);
+        }
+    }
+
+    // Adds (sign 1) or subtracts (sign -1) a subtree's totals on the path up to the root
+    private void propagate(Staff s, int sign) {
+        long payrollDelta = Math.multiplyExact(sign, s.getPayroll());
+        int[] headcountDelta = new int[TYPES.length];
+        for (EmployeeType type : TYPES) {
+            headcountDelta[type.ordinal()] = sign * s.getHeadcount(type);
+        }
+        for (Department d = this; d != null; d = d.getParent()) {
+            for (int i = 0; i < headcountDelta.length; i++) {
+                d.headcounts[i] += headcountDelta[i];
+            }
+            d.payroll = Math.addExact(d.payroll, payrollDelta);
+        }
     }
 }
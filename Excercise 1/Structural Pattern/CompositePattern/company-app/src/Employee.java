@@ -0,0 +1,57 @@
+
+// Leaf base shared by Programmer and TeamLead
+public abstract class Employee extends StaffNode {
+    private final String fullName;
+    private final long id;
+    private final String role;
+    private final long salary;
+
+    protected Employee(long id, String fullName, String role, long salary) {
+        if (fullName == null) {
+            throw new IllegalArgumentException("Employee name cannot be null");
+        }
+        if (role == null) {
+            throw new IllegalArgumentException("Employee role cannot be null");
+        }
+        if (salary < 0) {
+            throw new IllegalArgumentException("Salary cannot be negative");
+        }
+        this.id = id;
+        this.fullName = fullName;
+        this.role = role;
+        this.salary = salary;
+    }
+
+    public abstract EmployeeType getType();
+
+    public long getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getSalary() {
+        return salary;
+    }
+
+    @Override
+    public int getHeadcount() {
+        return 1;
+    }
+
+    @Override
+    public int getHeadcount(EmployeeType type) {
+        return type == getType() ? 1 : 0;
+    }
+
+    @Override
+    public long getPayroll() {
+        return salary;
+    }
+}
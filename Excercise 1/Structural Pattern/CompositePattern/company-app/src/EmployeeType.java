@@ -0,0 +1,6 @@
+
+// Kinds of employee counted in department headcounts
+public enum EmployeeType {
+    PROGRAMMER,
+    TEAM_LEAD
+}
@@ -0,0 +1,264 @@
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+// Streams the org chart to a Writer as text, JSON or CSV.
+// The tree is walked in pre-order with an explicit array-backed stack, so depth is limited
+// only by memory. Every department and employee is one row; names and roles are written
+// straight from the existing Strings and numbers are formatted into a reused char buffer,
+// so no per-row Strings are created. Output can be cut at a maximum depth and paged by
+// row offset and limit. JSON is an array of flat row objects so that pages stay valid JSON.
+public class OrgChartRenderer {
+    public enum Format {
+        TEXT,
+        JSON,
+        CSV
+    }
+
+    public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    private static final char[] INDENT = "                                                                ".toCharArray();
+
+    private final Format format;
+    private final int maxDepth;
+    private final long offset;
+    private final long limit;
+    private final char[] digits = new char[20];
+
+    public OrgChartRenderer(Format format) {
+        this(format, UNLIMITED_DEPTH, 0, Long.MAX_VALUE);
+    }
+
+    // Rows deeper than maxDepth are left out; offset rows are skipped and at most limit written
+    public OrgChartRenderer(Format format, int maxDepth, long offset, long limit) {
+        if (format == null) {
+            throw new IllegalArgumentException("Format cannot be null");
+        }
+        if (maxDepth < 0 || offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Depth, offset and limit cannot be negative");
+        }
+        this.format = format;
+        this.maxDepth = maxDepth;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    // Writes the chart and returns the number of rows written. The writer is flushed, not closed.
+    public long render(Staff root, Writer writer) throws IOException {
+        Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, 1 << 16);
+        long row = 0;
+        long written = 0;
+        begin(out);
+
+        Department[] departments = new Department[16];
+        int[] positions = new int[16];
+        int top = -1;
+        Staff next = root;
+        int depth = 0;
+        while (next != null) {
+            if (row >= offset) {
+                if (written == limit) {
+                    break;
+                }
+                writeRow(out, next, depth, written);
+                written++;
+            }
+            row++;
+
+            if (next instanceof Department && depth < maxDepth && !((Department) next).members().isEmpty()) {
+                if (++top == departments.length) {
+                    departments = Arrays.copyOf(departments, top * 2);
+                    positions = Arrays.copyOf(positions, top * 2);
+                }
+                departments[top] = (Department) next;
+                positions[top] = 0;
+            }
+            // Find the next row: the first unvisited member of the innermost open department
+            next = null;
+            while (top >= 0) {
+                List<Staff> members = departments[top].members();
+                if (positions[top] < members.size()) {
+                    next = members.get(positions[top]++);
+                    depth = top + 1;
+                    break;
+                }
+                departments[top--] = null;
+            }
+        }
+
+        end(out, written);
+        out.flush();
+        return written;
+    }
+
+    private void begin(Writer out) throws IOException {
+        if (format == Format.JSON) {
+            out.write('[');
+        } else if (format == Format.CSV) {
+            out.write("depth,type,id,name,role,salary,headcount,payroll\n");
+        }
+    }
+
+    private void end(Writer out, long written) throws IOException {
+        if (format == Format.JSON) {
+            out.write(written == 0 ? "]\n" : "\n]\n");
+        }
+    }
+
+    private void writeRow(Writer out, Staff s, int depth, long index) throws IOException {
+        switch (format) {
+            case TEXT:
+                writeText(out, s, depth);
+                break;
+            case JSON:
+                writeJson(out, s, depth, index);
+                break;
+            default:
+                writeCsv(out, s, depth);
+        }
+    }
+
+    private void writeText(Writer out, Staff s, int depth) throws IOException {
+        for (int remaining = depth * 2; remaining > 0; remaining -= INDENT.length) {
+            out.write(INDENT, 0, Math.min(remaining, INDENT.length));
+        }
+        if (s instanceof Department) {
+            Department d = (Department) s;
+            out.write("[Department] ");
+            out.write(d.getName());
+            out.write(" (");
+            writeLong(out, d.getHeadcount());
+            out.write(" staff, payroll ");
+            writeLong(out, d.getPayroll());
+            out.write(")\n");
+        } else {
+            Employee e = (Employee) s;
+            out.write(e.getType() == EmployeeType.PROGRAMMER ? "[Programmer] " : "[TeamLead] ");
+            writeLong(out, e.getId());
+            out.write(" - ");
+            out.write(e.getFullName());
+            out.write(" (");
+            out.write(e.getRole());
+            out.write(")\n");
+        }
+    }
+
+    private void writeJson(Writer out, Staff s, int depth, long index) throws IOException {
+        out.write(index == 0 ? "\n{\"depth\":" : ",\n{\"depth\":");
+        writeLong(out, depth);
+        if (s instanceof Department) {
+            Department d = (Department) s;
+            out.write(",\"type\":\"Department\",\"name\":");
+            writeJsonString(out, d.getName());
+            out.write(",\"headcount\":");
+            writeLong(out, d.getHeadcount());
+            out.write(",\"payroll\":");
+            writeLong(out, d.getPayroll());
+        } else {
+            Employee e = (Employee) s;
+            out.write(e.getType() == EmployeeType.PROGRAMMER ? ",\"type\":\"Programmer\"" : ",\"type\":\"TeamLead\"");
+            out.write(",\"id\":");
+            writeLong(out, e.getId());
+            out.write(",\"name\":");
+            writeJsonString(out, e.getFullName());
+            out.write(",\"role\":");
+            writeJsonString(out, e.getRole());
+            out.write(",\"salary\":");
+            writeLong(out, e.getSalary());
+        }
+        out.write('}');
+    }
+
+    private void writeCsv(Writer out, Staff s, int depth) throws IOException {
+        writeLong(out, depth);
+        if (s instanceof Department) {
+            Department d = (Department) s;
+            out.write(",Department,,");
+            writeCsvField(out, d.getName());
+            out.write(",,,");
+            writeLong(out, d.getHeadcount());
+            out.write(',');
+            writeLong(out, d.getPayroll());
+        } else {
+            Employee e = (Employee) s;
+            out.write(e.getType() == EmployeeType.PROGRAMMER ? ",Programmer," : ",TeamLead,");
+            writeLong(out, e.getId());
+            out.write(',');
+            writeCsvField(out, e.getFullName());
+            out.write(',');
+            writeCsvField(out, e.getRole());
+            out.write(',');
+            writeLong(out, e.getSalary());
+            out.write(",1,");
+            writeLong(out, e.getSalary());
+        }
+        out.write('\n');
+    }
+
+    // Formats into the shared digit buffer instead of allocating a String
+    private void writeLong(Writer out, long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            out.write("-9223372036854775808");
+            return;
+        }
+        boolean negative = value < 0;
+        long v = negative ? -value : value;
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (negative) {
+            out.write('-');
+        }
+        out.write(digits, pos, digits.length - pos);
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.write(value, start, i - start);
+                if (c == '"' || c == '\\') {
+                    out.write('\\');
+                    out.write(c);
+                } else {
+                    out.write("\\u00");
+                    out.write(Character.forDigit(c >> 4, 16));
+                    out.write(Character.forDigit(c & 0xF, 16));
+                }
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
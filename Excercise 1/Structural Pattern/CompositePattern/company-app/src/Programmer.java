@@ -1,18 +1,27 @@
 
 // Leaf
-public class Programmer implements Staff {
-    private final String fullName;
-    private final long id;
-    private final String role;
+public class Programmer extends Employee {
 
     public Programmer(long id, String fullName, String role) {
-        this.id = id;
-        this.fullName = fullName;
-        this.role = role;
+        this(id, fullName, role, 0);
+    }
+
+    public Programmer(long id, String fullName, String role, long salary) {
+        super(id, fullName, role, salary);
     }
 
     @Override
     public void displayInfo() {
-        System.out.println("[Programmer] " + id + " - " + fullName + " (" + role + ")");
+        System.out.println("[Programmer] " + getId() + " - " + getFullName() + " (" + getRole() + ")");
+    }
+
+    @Override
+    public <R> R accept(StaffVisitor<R> visitor) {
+        return visitor.visitProgrammer(this);
+    }
+
+    @Override
+    public EmployeeType getType() {
+        return EmployeeType.PROGRAMMER;
     }
 }
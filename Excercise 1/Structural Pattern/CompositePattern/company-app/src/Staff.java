@@ -2,4 +2,18 @@
 // Component
 public interface Staff {
     void displayInfo();
+
+    // Visits every leaf in this subtree in order and folds the results
+    <R> R accept(StaffVisitor<R> visitor);
+
+    // Number of employees in this subtree; a leaf counts as one
+    int getHeadcount();
+
+    int getHeadcount(EmployeeType type);
+
+    // Sum of annual salaries in this subtree
+    long getPayroll();
+
+    // Department this node belongs to, or null for a top-level department
+    Department getParent();
 }
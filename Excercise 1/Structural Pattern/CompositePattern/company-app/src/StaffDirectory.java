@@ -0,0 +1,57 @@
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Company-wide index kept by the top-level department: employee id -> employee and
+// role -> employees. Moving staff inside one company never touches it.
+class StaffDirectory {
+    private final Map<Long, Employee> byId = new HashMap<>();
+    private final Map<String, Set<Employee>> byRole = new HashMap<>();
+
+    Employee get(long id) {
+        return byId.get(id);
+    }
+
+    Set<Employee> withRole(String role) {
+        Set<Employee> members = byRole.get(role);
+        return members == null ? Collections.emptySet() : members;
+    }
+
+    List<Employee> all() {
+        return new ArrayList<>(byId.values());
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    // Checks every id first so a rejected add leaves the index unchanged
+    void checkCanAdd(List<Employee> employees) {
+        for (Employee e : employees) {
+            Employee existing = byId.get(e.getId());
+            if (existing != null && existing != e) {
+                throw new IllegalArgumentException("Duplicate employee id: " + e.getId());
+            }
+        }
+    }
+
+    void add(Employee e) {
+        byId.put(e.getId(), e);
+        byRole.computeIfAbsent(e.getRole(), role -> new LinkedHashSet<>()).add(e);
+    }
+
+    void remove(Employee e) {
+        if (byId.remove(e.getId(), e)) {
+            Set<Employee> members = byRole.get(e.getRole());
+            members.remove(e);
+            if (members.isEmpty()) {
+                byRole.remove(e.getRole());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+
+// Base for every node in the hierarchy: a parent pointer plus the node's slot in the
+// parent's member list, which lets a department remove a member without searching for it
+abstract class StaffNode implements Staff {
+    private Department parent;
+    private int slot = -1;
+
+    @Override
+    public Department getParent() {
+        return parent;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    void attach(Department parent, int slot) {
+        this.parent = parent;
+        this.slot = slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    void detach() {
+        this.parent = null;
+        this.slot = -1;
+    }
+}
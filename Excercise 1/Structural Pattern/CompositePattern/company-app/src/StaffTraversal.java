@@ -0,0 +1,121 @@
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Runs a StaffVisitor over a hierarchy on the fork/join pool.
+// A department's children are scanned in order and cut into groups of consecutive
+// siblings holding about SEQUENTIAL_THRESHOLD employees (from the cached headcounts).
+// Each full group is forked as a task that visits it sequentially; a department larger
+// than the threshold gets a task of its own, which splits it the same way. Results are
+// always combined in hierarchy order.
+public final class StaffTraversal {
+    static final int SEQUENTIAL_THRESHOLD = 10_000;
+
+    private StaffTraversal() {
+    }
+
+    public static <R> R sequential(Staff root, StaffVisitor<R> visitor) {
+        return root.accept(visitor);
+    }
+
+    public static <R> R parallel(Staff root, StaffVisitor<R> visitor) {
+        return parallel(root, visitor, ForkJoinPool.commonPool());
+    }
+
+    public static <R> R parallel(Staff root, StaffVisitor<R> visitor, ForkJoinPool pool) {
+        if (!(root instanceof Department) || root.getHeadcount() <= SEQUENTIAL_THRESHOLD) {
+            return root.accept(visitor);
+        }
+        List<Staff> members = ((Department) root).members();
+        return pool.invoke(new VisitTask<>(members, 0, members.size(), false, visitor));
+    }
+
+    private static class VisitTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private List<Staff> members;
+        private int from;
+        private final int to;
+        private final boolean group;
+        private final StaffVisitor<R> visitor;
+
+        // A group is visited sequentially; otherwise the range is split into groups first
+        VisitTask(List<Staff> members, int from, int to, boolean group, StaffVisitor<R> visitor) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+            this.group = group;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected R compute() {
+            if (group) {
+                return visitRange(from, to);
+            }
+            // Parts in hierarchy order: forked tasks, or results already computed here
+            List<VisitTask<R>> tasks = new ArrayList<>();
+            List<R> values = new ArrayList<>();
+            int end = to;
+            int groupStart = from;
+            long groupCount = 0;
+            int i = from;
+            while (i < end) {
+                Staff s = members.get(i);
+                long count = s.getHeadcount();
+                if (s instanceof Department && count > SEQUENTIAL_THRESHOLD) {
+                    // Staff before the large department is too little for a task of its own
+                    addPart(tasks, values, null, visitRange(groupStart, i));
+                    List<Staff> children = ((Department) s).members();
+                    if (i == end - 1) {
+                        // The large department comes last: walk into it here, so deep
+                        // chains of departments do not nest tasks
+                        members = children;
+                        i = 0;
+                        end = children.size();
+                    } else {
+                        addPart(tasks, values, fork(children, 0, children.size(), false), null);
+                        i++;
+                    }
+                    groupStart = i;
+                    groupCount = 0;
+                    continue;
+                }
+                groupCount += count;
+                i++;
+                if (groupCount >= SEQUENTIAL_THRESHOLD) {
+                    addPart(tasks, values, fork(members, groupStart, i, true), null);
+                    groupStart = i;
+                    groupCount = 0;
+                }
+            }
+            R result = visitRange(groupStart, end);
+            for (int p = tasks.size() - 1; p >= 0; p--) {
+                VisitTask<R> task = tasks.get(p);
+                result = visitor.combine(task != null ? task.join() : values.get(p), result);
+            }
+            return result;
+        }
+
+        private void addPart(List<VisitTask<R>> tasks, List<R> values, VisitTask<R> task, R value) {
+            tasks.add(task);
+            values.add(value);
+        }
+
+        private VisitTask<R> fork(List<Staff> range, int start, int stop, boolean isGroup) {
+            VisitTask<R> task = new VisitTask<>(range, start, stop, isGroup, visitor);
+            task.fork();
+            return task;
+        }
+
+        private R visitRange(int start, int stop) {
+            R result = visitor.identity();
+            for (int i = start; i < stop; i++) {
+                result = visitor.combine(result, members.get(i).accept(visitor));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+
+// Visitor over the staff hierarchy that produces one result per leaf and folds them together.
+// combine must be associative with identity() as its neutral value, so results can be
+// computed for separate parts of the tree in parallel and merged in order.
+public interface StaffVisitor<R> {
+    R visitProgrammer(Programmer programmer);
+
+    R visitTeamLead(TeamLead teamLead);
+
+    // Result for a department with no employees
+    R identity();
+
+    R combine(R left, R right);
+}
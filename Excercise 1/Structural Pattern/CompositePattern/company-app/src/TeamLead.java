@@ -1,19 +1,28 @@
 
 
 // Leaf
-public class TeamLead implements Staff {
-    private final String fullName;
-    private final long id;
-    private final String role;
+public class TeamLead extends Employee {
 
     public TeamLead(long id, String fullName, String role) {
-        this.id = id;
-        this.fullName = fullName;
-        this.role = role;
+        this(id, fullName, role, 0);
+    }
+
+    public TeamLead(long id, String fullName, String role, long salary) {
+        super(id, fullName, role, salary);
     }
 
     @Override
     public void displayInfo() {
-        System.out.println("[TeamLead] " + id + " - " + fullName + " (" + role + ")");
+        System.out.println("[TeamLead] " + getId() + " - " + getFullName() + " (" + getRole() + ")");
+    }
+
+    @Override
+    public <R> R accept(StaffVisitor<R> visitor) {
+        return visitor.visitTeamLead(this);
+    }
+
+    @Override
+    public EmployeeType getType() {
+        return EmployeeType.TEAM_LEAD;
     }
 }
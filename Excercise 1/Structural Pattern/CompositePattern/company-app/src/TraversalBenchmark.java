@@ -0,0 +1,123 @@
+
+// Times sequential and fork/join traversal on a wide and a deep hierarchy of one million employees
+public class TraversalBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors());
+        run("wide (1,000 departments x 1,000)", wide(1_000, 1_000));
+        run("deep (10,000 nested departments x 100)", deep(10_000, 100));
+    }
+
+    private static void run(String name, Department root) {
+        PayrollVisitor payroll = new PayrollVisitor();
+        FindVisitor find = new FindVisitor(root.getHeadcount() - 1);
+        long sequentialNanos = Long.MAX_VALUE;
+        long parallelNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long begin = System.nanoTime();
+            long sequentialPayroll = StaffTraversal.sequential(root, payroll);
+            Staff sequentialFound = StaffTraversal.sequential(root, find);
+            sequentialNanos = Math.min(sequentialNanos, System.nanoTime() - begin);
+
+            begin = System.nanoTime();
+            long parallelPayroll = StaffTraversal.parallel(root, payroll);
+            Staff parallelFound = StaffTraversal.parallel(root, find);
+            parallelNanos = Math.min(parallelNanos, System.nanoTime() - begin);
+
+            if (sequentialPayroll != root.getPayroll() || parallelPayroll != root.getPayroll()
+                    || sequentialFound != parallelFound || sequentialFound == null) {
+                throw new IllegalStateException("Traversal results do not match");
+            }
+        }
+        System.out.printf("%-40s sequential %6.1f ms | parallel %6.1f ms%n",
+                name, sequentialNanos / 1e6, parallelNanos / 1e6);
+    }
+
+    private static Department wide(int departments, int perDepartment) {
+        Department root = new Department();
+        long id = 0;
+        for (int d = 0; d < departments; d++) {
+            Department department = new Department();
+            for (int e = 0; e < perDepartment; e++) {
+                department.addStaff(employee(id++));
+            }
+            root.addStaff(department);
+        }
+        return root;
+    }
+
+    private static Department deep(int depth, int perDepartment) {
+        // Built bottom-up so each addStaff only updates its new parent
+        Department current = null;
+        long id = (long) depth * perDepartment;
+        for (int level = 0; level < depth; level++) {
+            Department department = new Department();
+            for (int e = 0; e < perDepartment; e++) {
+                department.addStaff(employee(--id));
+            }
+            if (current != null) {
+                department.addStaff(current);
+            }
+            current = department;
+        }
+        return current;
+    }
+
+    private static Staff employee(long id) {
+        return id % 10 == 0
+                ? new TeamLead(id, "Lead " + id, "Team Lead", 150_000)
+                : new Programmer(id, "Dev " + id, "Developer", 100_000);
+    }
+
+    private static class PayrollVisitor implements StaffVisitor<Long> {
+        @Override
+        public Long visitProgrammer(Programmer programmer) {
+            return programmer.getSalary();
+        }
+
+        @Override
+        public Long visitTeamLead(TeamLead teamLead) {
+            return teamLead.getSalary();
+        }
+
+        @Override
+        public Long identity() {
+            return 0L;
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return left + right;
+        }
+    }
+
+    // Finds the first employee with the given id
+    private static class FindVisitor implements StaffVisitor<Staff> {
+        private final long id;
+
+        FindVisitor(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public Staff visitProgrammer(Programmer programmer) {
+            return programmer.getId() == id ? programmer : null;
+        }
+
+        @Override
+        public Staff visitTeamLead(TeamLead teamLead) {
+            return teamLead.getId() == id ? teamLead : null;
+        }
+
+        @Override
+        public Staff identity() {
+            return null;
+        }
+
+        @Override
+        public Staff combine(Staff left, Staff right) {
+            return left != null ? left : right;
+        }
+    }
+}
@@ -4,7 +4,7 @@ public class Garland extends TreeDecorator {
     }
 
     @Override
-    public String decorate() {
-        return super.decorate() + " with Garland";
+    protected String getDecoration() {
+        return "Garland";
     }
 }
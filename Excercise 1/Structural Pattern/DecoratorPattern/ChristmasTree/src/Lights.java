@@ -4,7 +4,7 @@ public class Lights extends TreeDecorator {
     }
 
     @Override
-    public String decorate() {
-        return super.decorate() + " with Lights";
+    protected String getDecoration() {
+        return "Lights";
     }
 }
@@ -4,7 +4,7 @@ public class Star extends TreeDecorator {
     }
 
     @Override
-    public String decorate() {
-        return super.decorate() + " with Star";
+    protected String getDecoration() {
+        return "Star";
     }
 }
@@ -1,12 +1,72 @@
+// Base for all decorations. Decorators only name what they add; decorate() flattens the
+// chain into an array and builds the description in one StringBuilder pass, so a tree with
+// thousands of decorations costs O(n) and cannot overflow the stack.
+// The wrapped tree is fixed at construction, so each decorator's result is computed once and
+// reused. Adding a decoration wraps the tree again and starts from the inner cached result,
+// then drops that inner cache, so a long chain keeps only its outermost description alive.
 public abstract class TreeDecorator implements ChristmasTree {
-    protected ChristmasTree tree;
+    private static final String SEPARATOR = " with ";
+
+    protected final ChristmasTree tree;
+    private final int depth;
+    private String decorated;
 
     public TreeDecorator(ChristmasTree tree) {
+        if (tree == null) {
+            throw new IllegalArgumentException("Tree cannot be null");
+        }
         this.tree = tree;
+        this.depth = tree instanceof TreeDecorator ? ((TreeDecorator) tree).depth + 1 : 1;
     }
 
+    // Name of the decoration this wrapper adds, e.g. "Star"
+    protected abstract String getDecoration();
+
     @Override
-    public String decorate() {
-        return tree.decorate();
+    public final String decorate() {
+        // Strings are immutable, so a racing thread at worst builds the same result twice
+        String result = decorated;
+        if (result == null) {
+            result = build();
+            decorated = result;
+        }
+        return result;
+    }
+
+    private String build() {
+        // Collect decorators from the outside in, stopping at the plain tree or at an
+        // inner decorator whose result is already cached
+        TreeDecorator[] chain = new TreeDecorator[depth];
+        int count = 0;
+        String base = null;
+        TreeDecorator cachedInner = null;
+        ChristmasTree current = this;
+        while (current instanceof TreeDecorator) {
+            TreeDecorator decorator = (TreeDecorator) current;
+            if (decorator != this && decorator.decorated != null) {
+                base = decorator.decorated;
+                cachedInner = decorator;
+                break;
+            }
+            chain[count++] = decorator;
+            current = decorator.tree;
+        }
+        if (base == null) {
+            base = current.decorate();
+        }
+
+        int length = base.length();
+        for (int i = 0; i < count; i++) {
+            length += SEPARATOR.length() + chain[i].getDecoration().length();
+        }
+        StringBuilder sb = new StringBuilder(length).append(base);
+        for (int i = count - 1; i >= 0; i--) {
+            sb.append(SEPARATOR).append(chain[i].getDecoration());
+        }
+        if (cachedInner != null) {
+            // The inner result is now a prefix of ours; it is rebuilt if asked for again
+            cachedInner.decorated = null;
+        }
+        return sb.toString();
     }
 }
@@ -1,5 +1,7 @@
+import api.ScheduleApiServer;
 import exception.TaskConflictException;
 import exception.TaskNotFoundException;
+import logging.AsyncFileHandler;
 import manager.ScheduleManager;
 import model.Priority;
 import model.Task;
@@ -8,6 +10,7 @@ import view.ConsoleView;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.*;
 
 /**
@@ -21,6 +24,7 @@ public class AstronautSchedulerApp {
     private final ScheduleManager scheduleManager;
     private final ConsoleView view;
     private final ConsoleNotifier notifier;
+    private ScheduleApiServer apiServer;
     private boolean running;
     
     public AstronautSchedulerApp() {
@@ -31,16 +35,28 @@ public class AstronautSchedulerApp {
         
         // Attach observer
         scheduleManager.addObserver(notifier);
+        
+        setupMetrics();
     }
     
     /**
      * Main application entry point.
+     * Pass {@code --api-port <port>} to also serve the schedule over HTTP on localhost.
      */
     public static void main(String[] args) {
         setupLogging();
         
         try {
             AstronautSchedulerApp app = new AstronautSchedulerApp();
+            Integer apiPort = parseApiPort(args);
+            if (apiPort != null) {
+                // Disable Nagle for the API responses unless the command line chose otherwise;
+                // must be set before the first HttpServer is created
+                if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                    System.setProperty("sun.net.httpserver.nodelay", "true");
+                }
+                app.startApiServer(apiPort);
+            }
             app.run();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Fatal application error", e);
@@ -48,6 +64,28 @@ public class AstronautSchedulerApp {
         }
     }
     
+    /**
+     * Starts the local HTTP API alongside the console.
+     */
+    public void startApiServer(int port) throws IOException {
+        apiServer = new ScheduleApiServer(scheduleManager);
+        apiServer.start(port);
+        view.displayInfo("Schedule API available at http://localhost:" + apiServer.getPort() + "/tasks");
+    }
+    
+    private static Integer parseApiPort(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--api-port".equals(args[i])) {
+                try {
+                    return Integer.parseInt(args[i + 1]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid API port: " + args[i + 1]);
+                }
+            }
+        }
+        return null;
+    }
+    
     /**
      * Main application loop.
      */
@@ -275,6 +313,11 @@ public class AstronautSchedulerApp {
         try {
             // Cleanup resources
             scheduleManager.removeObserver(notifier);
+            if (apiServer != null) {
+                apiServer.stop();
+            }
+            scheduleManager.getMetrics().stopReporting();
+            logger.info(scheduleManager.getMetrics().dump());
             view.close();
             
             System.out.println("\n" + "=".repeat(50));
@@ -289,14 +332,23 @@ public class AstronautSchedulerApp {
         logger.info("Application shutdown complete");
     }
     
+    private void setupMetrics() {
+        try {
+            scheduleManager.getMetrics().registerMBean();
+        } catch (IllegalStateException e) {
+            logger.log(Level.WARNING, "Metrics not exposed through JMX", e);
+        }
+        scheduleManager.getMetrics().startReporting(logger, 5, TimeUnit.MINUTES);
+    }
+    
     private static void setupLogging() {
         try {
             LogManager.getLogManager().reset();
             
-            // File handler for logging to file
-            FileHandler fileHandler = new FileHandler("astronaut-scheduler.log", true);
+            // Asynchronous file handler: 8K record buffer, rotate at 10 MB or daily, keep 5 files
+            AsyncFileHandler fileHandler = new AsyncFileHandler("astronaut-scheduler.log", 8192,
+                10L * 1024 * 1024, TimeUnit.DAYS.toMillis(1), 5);
             fileHandler.setLevel(Level.ALL);
-            fileHandler.setFormatter(new SimpleFormatter());
             
             // Root logger setup
             Logger rootLogger = Logger.getLogger("");
@@ -0,0 +1,232 @@
+package api;
+
+import feed.ChangeBatch;
+import feed.ChangeEvent;
+import model.Task;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the HTTP API.
+ * Writes tasks and change batches, and reads flat request objects whose values are strings,
+ * numbers or booleans, which is all the API needs.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    public static String toJson(Task task) {
+        StringBuilder sb = new StringBuilder(128);
+        appendTask(sb, task);
+        return sb.toString();
+    }
+
+    public static String toJson(List<Task> tasks) {
+        StringBuilder sb = new StringBuilder(tasks.size() * 128 + 2);
+        sb.append('[');
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendTask(sb, tasks.get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    public static String toJson(ChangeBatch batch) {
+        StringBuilder sb = new StringBuilder(batch.getEvents().size() * 160 + 64);
+        sb.append("{\"nextOffset\":").append(batch.getNextOffset())
+          .append(",\"missed\":").append(batch.getMissed())
+          .append(",\"events\":[");
+        for (int i = 0; i < batch.getEvents().size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendEvent(sb, batch.getEvents().get(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+    public static String error(String message) {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        appendString(sb, message == null ? "" : message);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Parses a flat JSON object into a map of raw values.
+     */
+    public static Map<String, String> parseObject(String json) {
+        Parser parser = new Parser(json == null ? "" : json);
+        Map<String, String> values = parser.readObject();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected content after JSON object");
+        }
+        return values;
+    }
+
+    private static void appendTask(StringBuilder sb, Task task) {
+        sb.append("{\"id\":");
+        appendString(sb, task.getId());
+        sb.append(",\"description\":");
+        appendString(sb, task.getDescription());
+        sb.append(",\"startTime\":\"").append(task.getStartTimeString())
+          .append("\",\"endTime\":\"").append(task.getEndTimeString())
+          .append("\",\"priority\":\"").append(task.getPriority().name())
+          .append("\",\"completed\":").append(task.isCompleted())
+          .append('}');
+    }
+
+    private static void appendEvent(StringBuilder sb, ChangeEvent event) {
+        sb.append("{\"offset\":").append(event.getOffset())
+          .append(",\"timestamp\":").append(event.getTimestamp())
+          .append(",\"type\":\"").append(event.getType().name()).append('"');
+        if (event.getType() != ChangeEvent.Type.CLEARED) {
+            sb.append(",\"taskId\":");
+            appendString(sb, event.getTaskId());
+            if (event.getPreviousDescription() != null) {
+                sb.append(",\"previousDescription\":");
+                appendString(sb, event.getPreviousDescription());
+            }
+            sb.append(",\"description\":");
+            appendString(sb, event.getDescription());
+            sb.append(",\"startTime\":\"").append(event.getStartTime())
+              .append("\",\"endTime\":\"").append(event.getEndTime())
+              .append("\",\"priority\":\"").append(event.getPriority().name())
+              .append("\",\"completed\":").append(event.isCompleted());
+        }
+        sb.append('}');
+    }
+
+    static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> readObject() {
+            Map<String, String> values = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return values;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                values.put(key, peek() == '"' ? readString() : readLiteral());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return values;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or '}' at position " + (pos - 1));
+                }
+            }
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IllegalArgumentException("Invalid unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(escaped);
+                }
+            }
+        }
+
+        String readLiteral() {
+            int start = pos;
+            while (!atEnd() && ",}".indexOf(peek()) < 0 && !Character.isWhitespace(peek())) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("[")) {
+                throw new IllegalArgumentException("Only flat JSON objects are supported");
+            }
+            return "null".equals(literal) ? null : literal;
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at position " + (pos - 1));
+            }
+        }
+    }
+}
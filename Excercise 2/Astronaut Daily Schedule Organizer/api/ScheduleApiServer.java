@@ -0,0 +1,324 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exception.TaskConflictException;
+import exception.TaskNotFoundException;
+import feed.ChangeBatch;
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+import observer.ScheduleObserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP server exposing the schedule as JSON, bound to localhost only.
+ *
+ * <pre>
+ * GET    /tasks[?active=true|completed=true|priority=HIGH]
+ * POST   /tasks                         {"description","startTime","endTime","priority"}
+ * PUT    /tasks?description=...         {"description","startTime","endTime","priority"} (all optional)
+ * DELETE /tasks?description=...
+ * POST   /tasks/complete?description=...
+ * GET    /changes?from=0[&max=100][&waitMs=0]
+ * GET    /metrics
+ * </pre>
+ *
+ * Each exchange runs on a virtual thread when the JVM supports them (Java 21+) and
+ * on a cached platform thread pool otherwise. Read responses are serialized once
+ * and cached until the schedule changes.
+ *
+ * The JDK server writes headers and body separately, so without TCP_NODELAY every
+ * keep-alive response waits on Nagle plus delayed ACK (about 40 ms per request).
+ * Launchers should run with {@code -Dsun.net.httpserver.nodelay=true}, or set it before
+ * the first server is created; this class does not change JVM-wide settings itself.
+ */
+public class ScheduleApiServer {
+
+    private static final Logger logger = Logger.getLogger(ScheduleApiServer.class.getName());
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int MAX_CHANGE_BATCH = 1000;
+    private static final long MAX_CHANGE_WAIT_MILLIS = 30_000;
+
+    private final ScheduleManager scheduleManager;
+    private final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
+    private final AtomicLong scheduleVersion = new AtomicLong();
+    private final ScheduleObserver cacheInvalidator = new CacheInvalidator();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ScheduleApiServer(ScheduleManager scheduleManager) {
+        this.scheduleManager = scheduleManager;
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("API server already running");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/changes", this::handleChanges);
+        server.createContext("/metrics", this::handleMetrics);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        scheduleManager.addObserver(cacheInvalidator);
+        server.start();
+        logger.info("Schedule API listening on " + server.getAddress());
+    }
+
+    /**
+     * Stops the server, waiting up to a second for in-flight exchanges.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.shutdown();
+        scheduleManager.removeObserver(cacheInvalidator);
+        responseCache.clear();
+        server = null;
+        executor = null;
+        logger.info("Schedule API stopped");
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("API server not running");
+        }
+        return server.getAddress().getPort();
+    }
+
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if (path.equals("/tasks") || path.equals("/tasks/")) {
+                switch (method) {
+                    case "GET":
+                        send(exchange, 200, JSON, readTasks(query));
+                        break;
+                    case "POST":
+                        Map<String, String> body = Json.parseObject(readBody(exchange));
+                        Task added = scheduleManager.addTask(body.get("description"), body.get("startTime"),
+                                                             body.get("endTime"), body.get("priority"));
+                        send(exchange, 201, JSON, Json.toJson(added).getBytes(StandardCharsets.UTF_8));
+                        break;
+                    case "PUT":
+                        Map<String, String> changes = Json.parseObject(readBody(exchange));
+                        Task updated = scheduleManager.updateTask(required(query, "description"),
+                            changes.get("description"), changes.get("startTime"),
+                            changes.get("endTime"), changes.get("priority"));
+                        send(exchange, 200, JSON, Json.toJson(updated).getBytes(StandardCharsets.UTF_8));
+                        break;
+                    case "DELETE":
+                        Task removed = scheduleManager.removeTask(required(query, "description"));
+                        send(exchange, 200, JSON, Json.toJson(removed).getBytes(StandardCharsets.UTF_8));
+                        break;
+                    default:
+                        sendError(exchange, 405, "Method not allowed: " + method);
+                }
+            } else if (path.equals("/tasks/complete") && method.equals("POST")) {
+                Task completed = scheduleManager.markTaskCompleted(required(query, "description"));
+                send(exchange, 200, JSON, Json.toJson(completed).getBytes(StandardCharsets.UTF_8));
+            } else {
+                sendError(exchange, 404, "Unknown endpoint: " + method + " " + path);
+            }
+        } catch (TaskNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (TaskConflictException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "API request failed", e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleChanges(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            long from = parseLong(query, "from", 0);
+            int max = (int) Math.min(MAX_CHANGE_BATCH, parseLong(query, "max", 100));
+            long waitMillis = Math.min(MAX_CHANGE_WAIT_MILLIS, parseLong(query, "waitMs", 0));
+
+            ChangeBatch batch = scheduleManager.getChangeFeed()
+                .poll(from, max, waitMillis, TimeUnit.MILLISECONDS);
+            send(exchange, 200, JSON, Json.toJson(batch).getBytes(StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Interrupted");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = scheduleManager.getMetrics().dump().getBytes(StandardCharsets.UTF_8);
+            send(exchange, 200, "text/plain; charset=utf-8", body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] readTasks(Map<String, String> query) {
+        String key = cacheKey(query);
+        long version = scheduleVersion.get();
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && cached.version == version) {
+            return cached.body;
+        }
+
+        byte[] body;
+        // Serialize under the manager lock so no task is modified mid-write
+        synchronized (scheduleManager) {
+            body = Json.toJson(selectTasks(query)).getBytes(StandardCharsets.UTF_8);
+        }
+        responseCache.put(key, new CachedResponse(version, body));
+        return body;
+    }
+
+    private List<Task> selectTasks(Map<String, String> query) {
+        if (query.containsKey("priority")) {
+            return scheduleManager.getTasksByPriority(Priority.fromString(query.get("priority")));
+        }
+        if ("true".equalsIgnoreCase(query.get("active"))) {
+            return scheduleManager.getActiveTasks();
+        }
+        if ("true".equalsIgnoreCase(query.get("completed"))) {
+            return scheduleManager.getCompletedTasks();
+        }
+        return scheduleManager.getAllTasks();
+    }
+
+    private static String cacheKey(Map<String, String> query) {
+        if (query.containsKey("priority")) {
+            return "priority=" + Priority.fromString(query.get("priority")).name();
+        }
+        if ("true".equalsIgnoreCase(query.get("active"))) {
+            return "active";
+        }
+        if ("true".equalsIgnoreCase(query.get("completed"))) {
+            return "completed";
+        }
+        return "all";
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing query parameter: " + name);
+        }
+        return value;
+    }
+
+    private static long parseLong(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + name + ": " + value);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                       URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, JSON, Json.error(message).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        try {
+            // Looked up reflectively so the code still builds and runs on Java 17
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.fine("Virtual threads unavailable, using a cached thread pool");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static final class CachedResponse {
+        private final long version;
+        private final byte[] body;
+
+        CachedResponse(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Bumps the schedule version on every change so cached reads are rebuilt.
+     */
+    private final class CacheInvalidator implements ScheduleObserver {
+        @Override public void onTaskAdded(Task task) { scheduleVersion.incrementAndGet(); }
+        @Override public void onTaskRemoved(Task task) { scheduleVersion.incrementAndGet(); }
+        @Override public void onTaskUpdated(Task oldTask, Task newTask) { scheduleVersion.incrementAndGet(); }
+        @Override public void onTaskConflict(Task newTask, Task existingTask) { }
+        @Override public void onScheduleCleared() { scheduleVersion.incrementAndGet(); }
+    }
+}
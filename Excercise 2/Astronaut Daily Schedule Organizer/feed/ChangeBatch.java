@@ -0,0 +1,42 @@
+package feed;
+
+import java.util.List;
+
+/**
+ * A batch of consecutive change events read from the feed.
+ */
+public class ChangeBatch {
+
+    private final List<ChangeEvent> events;
+    private final long nextOffset;
+    private final long missed;
+
+    ChangeBatch(List<ChangeEvent> events, long nextOffset, long missed) {
+        this.events = events;
+        this.nextOffset = nextOffset;
+        this.missed = missed;
+    }
+
+    public List<ChangeEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the offset to pass to the next read.
+     */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Gets the number of requested events that had already been evicted from the ring.
+     * A non-zero value means the reader fell behind and should resync from getAllTasks().
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+}
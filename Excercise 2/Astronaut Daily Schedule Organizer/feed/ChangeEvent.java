@@ -0,0 +1,64 @@
+package feed;
+
+import model.Priority;
+import model.Task;
+
+import java.time.LocalTime;
+
+/**
+ * Immutable record of a single schedule mutation in the change feed.
+ * Task fields are copied when the event is created, since Task is mutable.
+ */
+public class ChangeEvent {
+
+    /**
+     * Kind of mutation.
+     */
+    public enum Type {
+        ADDED, REMOVED, UPDATED, CLEARED
+    }
+
+    private final long offset;
+    private final long timestamp;
+    private final Type type;
+    private final String taskId;
+    private final String previousDescription;
+    private final String description;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Priority priority;
+    private final boolean completed;
+
+    ChangeEvent(long offset, long timestamp, Type type, Task previous, Task task) {
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.previousDescription = previous == null ? null : previous.getDescription();
+        this.taskId = task == null ? null : task.getId();
+        this.description = task == null ? null : task.getDescription();
+        this.startTime = task == null ? null : task.getStartTime();
+        this.endTime = task == null ? null : task.getEndTime();
+        this.priority = task == null ? null : task.getPriority();
+        this.completed = task != null && task.isCompleted();
+    }
+
+    public long getOffset() { return offset; }
+    public long getTimestamp() { return timestamp; }
+    public Type getType() { return type; }
+    public String getTaskId() { return taskId; }
+    public String getPreviousDescription() { return previousDescription; }
+    public String getDescription() { return description; }
+    public LocalTime getStartTime() { return startTime; }
+    public LocalTime getEndTime() { return endTime; }
+    public Priority getPriority() { return priority; }
+    public boolean isCompleted() { return completed; }
+
+    @Override
+    public String toString() {
+        if (type == Type.CLEARED) {
+            return "#" + offset + " " + type;
+        }
+        return String.format("#%d %s %s (%s - %s, %s%s)", offset, type, description,
+            startTime, endTime, priority.name(), completed ? ", completed" : "");
+    }
+}
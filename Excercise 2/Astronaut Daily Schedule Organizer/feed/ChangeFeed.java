@@ -0,0 +1,206 @@
+package feed;
+
+import model.Task;
+import observer.ScheduleObserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequenced change feed of schedule mutations.
+ * Every add, remove, update and clear is assigned a monotonically increasing
+ * offset and kept in a bounded in-memory ring. Readers pull batches starting at
+ * any retained offset, so a subscriber that connects late or reconnects can
+ * resume where it left off instead of polling the whole task list.
+ * The schedule manager appends while holding its own lock, so feed order
+ * matches the order in which changes were applied to the store.
+ * Only the owner that claimed the recorder can append; everyone else holding
+ * the feed can only read it.
+ */
+public class ChangeFeed {
+
+    private final ChangeEvent[] ring;
+    private final Recorder recorder = new Recorder();
+    private long nextOffset;
+    private boolean recorderClaimed;
+
+    public ChangeFeed(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change feed capacity must be positive");
+        }
+        this.ring = new ChangeEvent[capacity];
+    }
+
+    /**
+     * Hands out the observer that appends schedule changes to this feed.
+     * It can be claimed only once, by the owner right after creating the feed.
+     */
+    public synchronized ScheduleObserver claimRecorder() {
+        if (recorderClaimed) {
+            throw new IllegalStateException("Change feed recorder has already been claimed");
+        }
+        recorderClaimed = true;
+        return recorder;
+    }
+
+    /**
+     * Gets the offset the next event will receive.
+     */
+    public synchronized long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Gets the oldest offset still held in the ring.
+     */
+    public synchronized long getOldestOffset() {
+        return Math.max(0, nextOffset - ring.length);
+    }
+
+    /**
+     * Reads up to maxEvents events starting at fromOffset without waiting.
+     * Offsets past the head of the feed were never issued and are rejected.
+     */
+    public synchronized ChangeBatch read(long fromOffset, int maxEvents) {
+        checkOffset(fromOffset);
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        long start = Math.max(fromOffset, getOldestOffset());
+        long missed = Math.max(0, start - fromOffset);
+        if (start >= nextOffset) {
+            return new ChangeBatch(Collections.emptyList(), Math.max(start, fromOffset), missed);
+        }
+
+        long end = Math.min(nextOffset, start + maxEvents);
+        List<ChangeEvent> events = new ArrayList<>((int) (end - start));
+        for (long offset = start; offset < end; offset++) {
+            events.add(ring[(int) (offset % ring.length)]);
+        }
+        return new ChangeBatch(Collections.unmodifiableList(events), end, missed);
+    }
+
+    /**
+     * Reads up to maxEvents events starting at fromOffset, waiting up to the
+     * given timeout for at least one event to arrive.
+     */
+    public synchronized ChangeBatch poll(long fromOffset, int maxEvents, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        checkOffset(fromOffset);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (nextOffset <= fromOffset) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return read(fromOffset, maxEvents);
+    }
+
+    /**
+     * Creates a subscription that starts at the given offset.
+     */
+    public Subscription subscribe(long fromOffset) {
+        synchronized (this) {
+            checkOffset(fromOffset);
+        }
+        return new Subscription(this, fromOffset);
+    }
+
+    /**
+     * Creates a subscription that only sees events appended from now on.
+     */
+    public Subscription subscribeFromLatest() {
+        return new Subscription(this, getNextOffset());
+    }
+
+    private void checkOffset(long fromOffset) {
+        if (fromOffset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (fromOffset > nextOffset) {
+            throw new IllegalArgumentException(
+                "Offset " + fromOffset + " is past the head of the feed (" + nextOffset + ")");
+        }
+    }
+
+    private synchronized void append(ChangeEvent.Type type, Task previous, Task task) {
+        long offset = nextOffset++;
+        ring[(int) (offset % ring.length)] =
+            new ChangeEvent(offset, System.currentTimeMillis(), type, previous, task);
+        notifyAll();
+    }
+
+    /**
+     * Observer that turns schedule changes into feed events.
+     */
+    private class Recorder implements ScheduleObserver {
+        @Override
+        public void onTaskAdded(Task task) {
+            append(ChangeEvent.Type.ADDED, null, task);
+        }
+
+        @Override
+        public void onTaskRemoved(Task task) {
+            append(ChangeEvent.Type.REMOVED, null, task);
+        }
+
+        @Override
+        public void onTaskUpdated(Task oldTask, Task newTask) {
+            append(ChangeEvent.Type.UPDATED, oldTask, newTask);
+        }
+
+        @Override
+        public void onTaskConflict(Task newTask, Task existingTask) {
+            // Rejected changes never reach the store, so they are not part of the feed
+        }
+
+        @Override
+        public void onScheduleCleared() {
+            append(ChangeEvent.Type.CLEARED, null, null);
+        }
+    }
+
+    /**
+     * Cursor over the feed that remembers its own position.
+     */
+    public static class Subscription {
+        private final ChangeFeed feed;
+        private long position;
+        private long missed;
+
+        Subscription(ChangeFeed feed, long position) {
+            this.feed = feed;
+            this.position = position;
+        }
+
+        public synchronized List<ChangeEvent> poll(int maxEvents) {
+            return advance(feed.read(position, maxEvents));
+        }
+
+        public synchronized List<ChangeEvent> poll(int maxEvents, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return advance(feed.poll(position, maxEvents, timeout, unit));
+        }
+
+        public synchronized long getPosition() {
+            return position;
+        }
+
+        /**
+         * Gets the total number of events this subscriber missed because it fell behind.
+         */
+        public synchronized long getMissed() {
+            return missed;
+        }
+
+        private List<ChangeEvent> advance(ChangeBatch batch) {
+            position = batch.getNextOffset();
+            missed += batch.getMissed();
+            return batch.getEvents();
+        }
+    }
+}
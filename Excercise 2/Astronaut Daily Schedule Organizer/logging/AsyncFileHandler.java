@@ -0,0 +1,210 @@
+package logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Non-blocking logging handler that writes to a file from a background thread.
+ * Callers only hand the record to a bounded ring buffer; formatting, encoding and
+ * the file write happen on the writer thread in batches through a FileChannel.
+ * When the buffer is full the record is dropped and counted instead of blocking
+ * the caller. The file is rotated once it exceeds a size limit or after a fixed
+ * interval, keeping a numbered set of older files (name.1 is the most recent).
+ */
+public class AsyncFileHandler extends Handler {
+
+    private static final int MAX_BATCH = 256;
+    private static final long POLL_MILLIS = 100;
+
+    private final Path path;
+    private final long maxBytes;
+    private final long rotateIntervalMillis;
+    private final int maxFiles;
+    private final BlockingQueue<LogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    private FileChannel channel;
+    private long openedAt;
+    private volatile boolean closed;
+
+    /**
+     * Creates a handler appending to the given file.
+     *
+     * @param fileName             log file to write
+     * @param capacity             number of records the ring buffer can hold
+     * @param maxBytes             rotate once the file grows past this size, 0 to disable
+     * @param rotateIntervalMillis rotate after this much time, 0 to disable
+     * @param maxFiles             number of rotated files to keep
+     */
+    public AsyncFileHandler(String fileName, int capacity, long maxBytes,
+                            long rotateIntervalMillis, int maxFiles) throws IOException {
+        if (capacity <= 0 || maxFiles < 0 || maxBytes < 0 || rotateIntervalMillis < 0) {
+            throw new IllegalArgumentException("Invalid async log handler configuration");
+        }
+        this.path = Paths.get(fileName);
+        this.maxBytes = maxBytes;
+        this.rotateIntervalMillis = rotateIntervalMillis;
+        this.maxFiles = maxFiles;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        setFormatter(new SimpleFormatter());
+        openChannel();
+
+        this.writer = new Thread(this::writeLoop, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // The caller is inferred from the current stack, so it must happen on this thread,
+        // before the writer thread formats the record
+        record.getSourceClassName();
+        if (!buffer.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records are written as soon as the writer drains them, so there is nothing to flush.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // No interrupt here: it would close the FileChannel under the writer
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            reportError("Failed to close log file", e, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+
+    /**
+     * Gets the number of records dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder(8192);
+        long reportedDrops = 0;
+
+        while (!closed || !buffer.isEmpty()) {
+            try {
+                LogRecord first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, MAX_BATCH - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long drops = dropped.get();
+            if (drops > reportedDrops) {
+                text.append("WARNING: ").append(drops - reportedDrops)
+                    .append(" log records dropped (buffer full)").append(System.lineSeparator());
+                reportedDrops = drops;
+            }
+            for (LogRecord record : batch) {
+                try {
+                    text.append(getFormatter().format(record));
+                } catch (RuntimeException e) {
+                    reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+                }
+            }
+            batch.clear();
+
+            try {
+                if (text.length() > 0) {
+                    write(text);
+                    text.setLength(0);
+                }
+                rotateIfNeeded();
+            } catch (IOException e) {
+                text.setLength(0);
+                reportError("Failed to write log file", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void write(CharSequence text) throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(text.toString());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private void rotateIfNeeded() throws IOException {
+        boolean tooLarge = maxBytes > 0 && channel.size() >= maxBytes;
+        boolean tooOld = rotateIntervalMillis > 0
+            && System.currentTimeMillis() - openedAt >= rotateIntervalMillis && channel.size() > 0;
+        if (!tooLarge && !tooOld) {
+            return;
+        }
+
+        try {
+            channel.close();
+            if (maxFiles == 0) {
+                Files.deleteIfExists(path);
+            } else {
+                Files.deleteIfExists(rotated(maxFiles));
+                for (int i = maxFiles - 1; i >= 1; i--) {
+                    Path source = rotated(i);
+                    if (Files.exists(source)) {
+                        Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // Reopen even if rotation failed, so logging goes on appending to the current file
+            openChannel();
+        }
+    }
+
+    private Path rotated(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                   StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        openedAt = System.currentTimeMillis();
+    }
+}
@@ -3,42 +3,69 @@ package manager;
 import exception.TaskConflictException;
 import exception.TaskNotFoundException;
 import factory.TaskFactory;
+import feed.ChangeFeed;
+import metrics.ScheduleMetrics;
 import model.Priority;
 import model.Task;
 import observer.ScheduleObserver;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Singleton class that manages the astronaut schedule.
  * Provides all CRUD operations and conflict detection.
+ * Public operations are synchronized on the instance so the schedule can be
+ * shared between the console and other front ends such as the HTTP API.
  */
 public class ScheduleManager {
     
-    private static ScheduleManager instance;
+    private static final int CHANGE_FEED_CAPACITY = 4096;
+    
     private final List<Task> tasks;
     private final List<ScheduleObserver> observers;
+    private final ScheduleMetrics metrics;
+    private final ChangeFeed changeFeed;
+    private final ScheduleObserver changeRecorder;
     
     private ScheduleManager() {
         this.tasks = new ArrayList<>();
         this.observers = new ArrayList<>();
+        this.metrics = new ScheduleMetrics(() -> tasks.size(), () -> observers.size());
+        this.changeFeed = new ChangeFeed(CHANGE_FEED_CAPACITY);
+        this.changeRecorder = changeFeed.claimRecorder();
     }
     
     /**
      * Gets the singleton instance.
      */
     public static ScheduleManager getInstance() {
-        if (instance == null) {
-            instance = new ScheduleManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+    
+    private static class Holder {
+        private static final ScheduleManager INSTANCE = new ScheduleManager();
+    }
+    
+    /**
+     * Gets the instrumentation for this manager.
+     */
+    public ScheduleMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Gets the sequenced feed of schedule changes.
+     */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
     }
     
     /**
      * Adds an observer to receive notifications.
      */
-    public void addObserver(ScheduleObserver observer) {
+    public synchronized void addObserver(ScheduleObserver observer) {
         if (observer != null && !observers.contains(observer)) {
             observers.add(observer);
         }
@@ -47,19 +74,29 @@ public class ScheduleManager {
     /**
      * Removes an observer.
      */
-    public void removeObserver(ScheduleObserver observer) {
+    public synchronized void removeObserver(ScheduleObserver observer) {
         observers.remove(observer);
     }
     
     /**
      * Adds a new task to the schedule.
      */
-    public Task addTask(String description, String startTime, String endTime, String priority) {
+    public synchronized Task addTask(String description, String startTime, String endTime, String priority) {
+        long started = System.nanoTime();
+        try {
+            return doAddTask(description, startTime, endTime, priority);
+        } finally {
+            metrics.record(ScheduleMetrics.Operation.ADD, System.nanoTime() - started);
+        }
+    }
+    
+    private Task doAddTask(String description, String startTime, String endTime, String priority) {
         Task newTask = TaskFactory.createTask(description, startTime, endTime, priority);
         
         // Check for conflicts
         Task conflictingTask = findConflictingTask(newTask);
         if (conflictingTask != null) {
+            metrics.recordConflict();
             notifyTaskConflict(newTask, conflictingTask);
             throw new TaskConflictException(
                 "Task conflicts with existing task \"" + conflictingTask.getDescription() + "\"",
@@ -76,7 +113,16 @@ public class ScheduleManager {
     /**
      * Removes a task by description.
      */
-    public Task removeTask(String description) {
+    public synchronized Task removeTask(String description) {
+        long started = System.nanoTime();
+        try {
+            return doRemoveTask(description);
+        } finally {
+            metrics.record(ScheduleMetrics.Operation.REMOVE, System.nanoTime() - started);
+        }
+    }
+    
+    private Task doRemoveTask(String description) {
         Task task = findTaskByDescription(description);
         tasks.remove(task);
         notifyTaskRemoved(task);
@@ -86,8 +132,18 @@ public class ScheduleManager {
     /**
      * Updates an existing task.
      */
-    public Task updateTask(String oldDescription, String newDescription, 
-                          String startTime, String endTime, String priority) {
+    public synchronized Task updateTask(String oldDescription, String newDescription, 
+                                       String startTime, String endTime, String priority) {
+        long started = System.nanoTime();
+        try {
+            return doUpdateTask(oldDescription, newDescription, startTime, endTime, priority);
+        } finally {
+            metrics.record(ScheduleMetrics.Operation.UPDATE, System.nanoTime() - started);
+        }
+    }
+    
+    private Task doUpdateTask(String oldDescription, String newDescription, 
+                              String startTime, String endTime, String priority) {
         Task existingTask = findTaskByDescription(oldDescription);
         
         // Create updated task
@@ -105,12 +161,18 @@ public class ScheduleManager {
                 tasks.add(existingTask);
                 sortTasks();
                 
+                metrics.recordConflict();
                 notifyTaskConflict(updatedTask, conflictingTask);
                 throw new TaskConflictException(
                     "Updated task conflicts with existing task \"" + conflictingTask.getDescription() + "\"",
                     updatedTask, conflictingTask);
             }
             
+            // Keep the old values for observers before changing the task in place
+            Task oldTask = new Task(existingTask.getDescription(), existingTask.getStartTime(),
+                                   existingTask.getEndTime(), existingTask.getPriority());
+            oldTask.setCompleted(existingTask.isCompleted());
+            
             // Update the existing task's properties
             existingTask.setDescription(updatedTask.getDescription());
             existingTask.setStartTime(updatedTask.getStartTime());
@@ -119,7 +181,7 @@ public class ScheduleManager {
             
             tasks.add(existingTask);
             sortTasks();
-            notifyTaskUpdated(updatedTask, existingTask);
+            notifyTaskUpdated(oldTask, existingTask);
             
             return existingTask;
             
@@ -134,7 +196,16 @@ public class ScheduleManager {
     /**
      * Marks a task as completed.
      */
-    public Task markTaskCompleted(String description) {
+    public synchronized Task markTaskCompleted(String description) {
+        long started = System.nanoTime();
+        try {
+            return doMarkTaskCompleted(description);
+        } finally {
+            metrics.record(ScheduleMetrics.Operation.COMPLETE, System.nanoTime() - started);
+        }
+    }
+    
+    private Task doMarkTaskCompleted(String description) {
         Task task = findTaskByDescription(description);
         Task oldTask = new Task(task.getDescription(), task.getStartTime(), 
                                task.getEndTime(), task.getPriority());
@@ -149,14 +220,14 @@ public class ScheduleManager {
     /**
      * Gets all tasks sorted by start time.
      */
-    public List<Task> getAllTasks() {
+    public synchronized List<Task> getAllTasks() {
         return new ArrayList<>(tasks);
     }
     
     /**
      * Gets active (non-completed) tasks.
      */
-    public List<Task> getActiveTasks() {
+    public synchronized List<Task> getActiveTasks() {
         return tasks.stream()
                    .filter(task -> !task.isCompleted())
                    .collect(Collectors.toList());
@@ -165,7 +236,7 @@ public class ScheduleManager {
     /**
      * Gets tasks by priority level.
      */
-    public List<Task> getTasksByPriority(Priority priority) {
+    public synchronized List<Task> getTasksByPriority(Priority priority) {
         return tasks.stream()
                    .filter(task -> task.getPriority() == priority)
                    .collect(Collectors.toList());
@@ -174,7 +245,7 @@ public class ScheduleManager {
     /**
      * Gets completed tasks.
      */
-    public List<Task> getCompletedTasks() {
+    public synchronized List<Task> getCompletedTasks() {
         return tasks.stream()
                    .filter(Task::isCompleted)
                    .collect(Collectors.toList());
@@ -183,7 +254,7 @@ public class ScheduleManager {
     /**
      * Clears all tasks from the schedule.
      */
-    public void clearSchedule() {
+    public synchronized void clearSchedule() {
         tasks.clear();
         notifyScheduleCleared();
     }
@@ -191,14 +262,14 @@ public class ScheduleManager {
     /**
      * Gets the total number of tasks.
      */
-    public int getTaskCount() {
+    public synchronized int getTaskCount() {
         return tasks.size();
     }
     
     /**
      * Checks if the schedule is empty.
      */
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return tasks.isEmpty();
     }
     
@@ -228,23 +299,34 @@ public class ScheduleManager {
     }
     
     // Observer notification methods
+    // The change feed is appended first, still under this manager's lock
     private void notifyTaskAdded(Task task) {
-        observers.forEach(observer -> observer.onTaskAdded(task));
+        changeRecorder.onTaskAdded(task);
+        dispatch(observer -> observer.onTaskAdded(task));
     }
     
     private void notifyTaskRemoved(Task task) {
-        observers.forEach(observer -> observer.onTaskRemoved(task));
+        changeRecorder.onTaskRemoved(task);
+        dispatch(observer -> observer.onTaskRemoved(task));
     }
     
     private void notifyTaskUpdated(Task oldTask, Task newTask) {
-        observers.forEach(observer -> observer.onTaskUpdated(oldTask, newTask));
+        changeRecorder.onTaskUpdated(oldTask, newTask);
+        dispatch(observer -> observer.onTaskUpdated(oldTask, newTask));
     }
     
     private void notifyTaskConflict(Task newTask, Task existingTask) {
-        observers.forEach(observer -> observer.onTaskConflict(newTask, existingTask));
+        dispatch(observer -> observer.onTaskConflict(newTask, existingTask));
     }
     
     private void notifyScheduleCleared() {
-        observers.forEach(observer -> observer.onScheduleCleared());
+        changeRecorder.onScheduleCleared();
+        dispatch(observer -> observer.onScheduleCleared());
+    }
+    
+    private void dispatch(Consumer<ScheduleObserver> notification) {
+        long started = System.nanoTime();
+        observers.forEach(notification);
+        metrics.recordObserverDispatch(System.nanoTime() - started);
     }
 }
@@ -0,0 +1,153 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Built-in instrumentation for the schedule manager.
+ * Keeps a latency histogram per operation, a conflict counter, observer dispatch
+ * time and gauges for the current store sizes. Recording is lock-free so the
+ * metrics can stay enabled in production; they are exposed through JMX and an
+ * optional periodic text dump.
+ */
+public class ScheduleMetrics implements ScheduleMetricsMBean {
+
+    public static final String OBJECT_NAME = "astronaut.scheduler:type=ScheduleMetrics";
+
+    /**
+     * Instrumented schedule operations.
+     */
+    public enum Operation {
+        ADD, UPDATE, REMOVE, COMPLETE
+    }
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final LatencyHistogram observerDispatch = new LatencyHistogram();
+    private final LongAdder conflicts = new LongAdder();
+    private final IntSupplier taskCount;
+    private final IntSupplier observerCount;
+    private ScheduledExecutorService reporter;
+
+    public ScheduleMetrics(IntSupplier taskCount, IntSupplier observerCount) {
+        this.taskCount = taskCount;
+        this.observerCount = observerCount;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public void record(Operation operation, long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    public void recordConflict() {
+        conflicts.increment();
+    }
+
+    public void recordObserverDispatch(long nanos) {
+        observerDispatch.record(nanos);
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    public LatencyHistogram getObserverDispatch() {
+        return observerDispatch;
+    }
+
+    @Override public long getAddCount() { return latencies.get(Operation.ADD).getCount(); }
+    @Override public long getUpdateCount() { return latencies.get(Operation.UPDATE).getCount(); }
+    @Override public long getRemoveCount() { return latencies.get(Operation.REMOVE).getCount(); }
+    @Override public long getCompleteCount() { return latencies.get(Operation.COMPLETE).getCount(); }
+    @Override public long getConflictCount() { return conflicts.sum(); }
+    @Override public int getTaskCount() { return taskCount.getAsInt(); }
+    @Override public int getObserverCount() { return observerCount.getAsInt(); }
+
+    @Override
+    public double getConflictRate() {
+        long attempts = getAddCount() + getUpdateCount();
+        return attempts == 0 ? 0.0 : (double) getConflictCount() / attempts;
+    }
+
+    @Override public double getAddP99Micros() { return p99Micros(latencies.get(Operation.ADD)); }
+    @Override public double getUpdateP99Micros() { return p99Micros(latencies.get(Operation.UPDATE)); }
+    @Override public double getRemoveP99Micros() { return p99Micros(latencies.get(Operation.REMOVE)); }
+    @Override public double getCompleteP99Micros() { return p99Micros(latencies.get(Operation.COMPLETE)); }
+    @Override public double getObserverDispatchP99Micros() { return p99Micros(observerDispatch); }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder("Schedule metrics:");
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            sb.append(System.lineSeparator())
+              .append(String.format("  %-9s %s", entry.getKey(), entry.getValue()));
+        }
+        sb.append(System.lineSeparator())
+          .append(String.format("  %-9s %s", "DISPATCH", observerDispatch));
+        sb.append(System.lineSeparator())
+          .append(String.format("  conflicts=%d (%.1f%%) tasks=%d observers=%d",
+              getConflictCount(), getConflictRate() * 100, getTaskCount(), getObserverCount()));
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        latencies.values().forEach(LatencyHistogram::reset);
+        observerDispatch.reset();
+        conflicts.reset();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics MBean: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Starts writing {@link #dump()} to the given logger at a fixed interval.
+     */
+    public synchronized void startReporting(Logger logger, long period, TimeUnit unit) {
+        stopReporting();
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> logger.info(dump()), period, period, unit);
+    }
+
+    /**
+     * Stops the periodic dump, if running.
+     */
+    public synchronized void stopReporting() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    private static double p99Micros(LatencyHistogram histogram) {
+        return histogram.getPercentileNanos(99) / 1000.0;
+    }
+}
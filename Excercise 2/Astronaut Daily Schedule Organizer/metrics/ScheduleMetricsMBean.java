@@ -0,0 +1,37 @@
+package metrics;
+
+/**
+ * JMX management interface for {@link ScheduleMetrics}.
+ */
+public interface ScheduleMetricsMBean {
+
+    long getAddCount();
+
+    long getUpdateCount();
+
+    long getRemoveCount();
+
+    long getCompleteCount();
+
+    long getConflictCount();
+
+    double getConflictRate();
+
+    int getTaskCount();
+
+    int getObserverCount();
+
+    double getAddP99Micros();
+
+    double getUpdateP99Micros();
+
+    double getRemoveP99Micros();
+
+    double getCompleteP99Micros();
+
+    double getObserverDispatchP99Micros();
+
+    String dump();
+
+    void reset();
+}
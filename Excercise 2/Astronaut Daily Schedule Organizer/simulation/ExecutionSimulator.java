@@ -0,0 +1,145 @@
+package simulation;
+
+import manager.ScheduleManager;
+import model.Priority;
+import model.Task;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Discrete-event simulator that replays a daily schedule against a virtual clock.
+ * Every astronaut runs the same day plan for the configured number of days. Random
+ * overruns are injected into task durations and cascade into the following tasks,
+ * since an astronaut cannot start a task before the previous one has finished.
+ * When several tasks are waiting on the same astronaut, HIGH priority runs first.
+ */
+public class ExecutionSimulator {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int days;
+    private final int astronauts;
+    private final double delayProbability;
+    private final int maxDelayMinutes;
+    private final long seed;
+
+    public ExecutionSimulator(int days, int astronauts, double delayProbability,
+                              int maxDelayMinutes, long seed) {
+        if (days <= 0 || astronauts <= 0) {
+            throw new IllegalArgumentException("Days and astronauts must be positive");
+        }
+        if (delayProbability < 0.0 || delayProbability > 1.0) {
+            throw new IllegalArgumentException("Delay probability must be between 0 and 1");
+        }
+        if (maxDelayMinutes < 0) {
+            throw new IllegalArgumentException("Max delay cannot be negative");
+        }
+        this.days = days;
+        this.astronauts = astronauts;
+        this.delayProbability = delayProbability;
+        this.maxDelayMinutes = maxDelayMinutes;
+        this.seed = seed;
+    }
+
+    /**
+     * Simulates the active tasks currently held by the schedule manager.
+     */
+    public SimulationReport run(ScheduleManager manager) {
+        return run(manager.getActiveTasks());
+    }
+
+    /**
+     * Simulates the given day plan.
+     */
+    public SimulationReport run(List<Task> dayPlan) {
+        long started = System.nanoTime();
+
+        List<Task> plan = new ArrayList<>(dayPlan);
+        plan.sort(null);
+
+        PriorityQueue<Event> queue = new PriorityQueue<>(Math.max(1, plan.size() * astronauts));
+        long sequence = 0;
+        for (int day = 0; day < days; day++) {
+            long dayOffset = (long) day * MINUTES_PER_DAY;
+            for (int astronaut = 0; astronaut < astronauts; astronaut++) {
+                for (Task task : plan) {
+                    long start = dayOffset + task.getStartTime().toSecondOfDay() / 60;
+                    int duration = (int) Duration.between(task.getStartTime(), task.getEndTime()).toMinutes();
+                    queue.add(new Event(start, astronaut, duration, task.getPriority(), sequence++));
+                }
+            }
+        }
+
+        EnumMap<Priority, LatenessStats> stats = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            stats.put(priority, new LatenessStats(priority));
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] busyUntil = new long[astronauts];
+        long eventsProcessed = 0;
+        long injectedDelay = 0;
+
+        while (!queue.isEmpty()) {
+            Event event = queue.poll();
+
+            long free = busyUntil[event.astronaut];
+            if (free > event.time) {
+                // Astronaut still busy: retry once the running task ends. Not counted yet,
+                // so each task is counted once, when it actually starts.
+                event.time = free;
+                queue.add(event);
+                continue;
+            }
+            eventsProcessed++;
+
+            stats.get(event.priority).record(event.time - event.scheduledStart);
+
+            int delay = 0;
+            if (maxDelayMinutes > 0 && random.nextDouble() < delayProbability) {
+                delay = 1 + random.nextInt(maxDelayMinutes);
+                injectedDelay += delay;
+            }
+            busyUntil[event.astronaut] = event.time + event.duration + delay;
+        }
+
+        return new SimulationReport(stats, eventsProcessed, injectedDelay, System.nanoTime() - started);
+    }
+
+    private static final class Event implements Comparable<Event> {
+        private long time;
+        private final long scheduledStart;
+        private final int astronaut;
+        private final int duration;
+        private final Priority priority;
+        private final long sequence;
+
+        Event(long scheduledStart, int astronaut, int duration, Priority priority, long sequence) {
+            this.time = scheduledStart;
+            this.scheduledStart = scheduledStart;
+            this.astronaut = astronaut;
+            this.duration = duration;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            if (byTime != 0) {
+                return byTime;
+            }
+            // HIGH has the lowest ordinal, so it wins ties
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
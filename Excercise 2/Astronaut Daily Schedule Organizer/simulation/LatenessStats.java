@@ -0,0 +1,52 @@
+package simulation;
+
+import model.Priority;
+
+/**
+ * Lateness figures collected for a single priority level during a simulation run.
+ * All values are in minutes of virtual time.
+ */
+public class LatenessStats {
+
+    private final Priority priority;
+    private long taskCount;
+    private long lateCount;
+    private long totalLateness;
+    private long maxLateness;
+
+    public LatenessStats(Priority priority) {
+        this.priority = priority;
+    }
+
+    void record(long latenessMinutes) {
+        taskCount++;
+        if (latenessMinutes > 0) {
+            lateCount++;
+            totalLateness += latenessMinutes;
+            if (latenessMinutes > maxLateness) {
+                maxLateness = latenessMinutes;
+            }
+        }
+    }
+
+    public Priority getPriority() { return priority; }
+    public long getTaskCount() { return taskCount; }
+    public long getLateCount() { return lateCount; }
+    public long getTotalLateness() { return totalLateness; }
+    public long getMaxLateness() { return maxLateness; }
+
+    public double getLateRatio() {
+        return taskCount == 0 ? 0.0 : (double) lateCount / taskCount;
+    }
+
+    public double getAverageLateness() {
+        return lateCount == 0 ? 0.0 : (double) totalLateness / lateCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s tasks=%d late=%d (%.1f%%) avg=%.1f min max=%d min",
+            priority.getDisplayName(), taskCount, lateCount, getLateRatio() * 100,
+            getAverageLateness(), maxLateness);
+    }
+}
@@ -0,0 +1,62 @@
+package simulation;
+
+import factory.TaskFactory;
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the mission-scale scenario: a full day plan for 20 astronauts over 90 days,
+ * with one task in five overrunning by up to 30 minutes.
+ * Usage: java simulation.SimulationBenchmark [days] [astronauts]
+ */
+public class SimulationBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 90;
+        int astronauts = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Task> plan = dayPlan();
+        ExecutionSimulator simulator = new ExecutionSimulator(days, astronauts, 0.2, 30, 42L);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            simulator.run(plan);
+        }
+        SimulationReport report = simulator.run(plan);
+
+        System.out.printf("%d days x %d astronauts x %d tasks per day%n", days, astronauts, plan.size());
+        System.out.print(report);
+        long expected = (long) days * astronauts * plan.size();
+        if (report.getEventsProcessed() != expected) {
+            throw new IllegalStateException("Expected " + expected + " tasks, simulated "
+                + report.getEventsProcessed());
+        }
+    }
+
+    private static List<Task> dayPlan() {
+        String[][] rows = {
+            {"Wake up and hygiene", "06:00", "06:30", "Medium"},
+            {"Breakfast", "06:30", "07:00", "Low"},
+            {"Daily planning conference", "07:00", "07:30", "High"},
+            {"Life support maintenance", "07:30", "09:00", "High"},
+            {"Microgravity experiment", "09:00", "11:00", "High"},
+            {"Exercise session", "11:00", "12:00", "Medium"},
+            {"Lunch", "12:00", "12:45", "Low"},
+            {"Payload operations", "12:45", "14:45", "High"},
+            {"Inventory audit", "14:45", "15:45", "Low"},
+            {"Earth observation", "15:45", "17:00", "Medium"},
+            {"Exercise session 2", "17:00", "18:00", "Medium"},
+            {"Dinner", "18:00", "19:00", "Low"},
+            {"Ground debrief", "19:00", "19:30", "High"},
+            {"Personal time", "19:30", "21:30", "Low"}
+        };
+        List<Task> plan = new ArrayList<>(rows.length);
+        for (String[] row : rows) {
+            plan.add(TaskFactory.createTask(row[0], row[1], row[2], row[3]));
+        }
+        return plan;
+    }
+}
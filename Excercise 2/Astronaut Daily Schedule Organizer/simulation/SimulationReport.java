@@ -0,0 +1,46 @@
+package simulation;
+
+import model.Priority;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Result of a simulation run: lateness per priority plus run totals.
+ */
+public class SimulationReport {
+
+    private final Map<Priority, LatenessStats> statsByPriority;
+    private final long eventsProcessed;
+    private final long injectedDelayMinutes;
+    private final long elapsedNanos;
+
+    SimulationReport(EnumMap<Priority, LatenessStats> statsByPriority, long eventsProcessed,
+                     long injectedDelayMinutes, long elapsedNanos) {
+        this.statsByPriority = Collections.unmodifiableMap(statsByPriority);
+        this.eventsProcessed = eventsProcessed;
+        this.injectedDelayMinutes = injectedDelayMinutes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LatenessStats getStats(Priority priority) {
+        return statsByPriority.get(priority);
+    }
+
+    public Map<Priority, LatenessStats> getStatsByPriority() { return statsByPriority; }
+    public long getEventsProcessed() { return eventsProcessed; }
+    public long getInjectedDelayMinutes() { return injectedDelayMinutes; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Simulation: %d events, %d min injected delay, %.1f ms%n",
+            eventsProcessed, injectedDelayMinutes, elapsedNanos / 1_000_000.0));
+        for (LatenessStats stats : statsByPriority.values()) {
+            sb.append("  ").append(stats).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}